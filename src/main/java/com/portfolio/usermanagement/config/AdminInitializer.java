@@ -4,6 +4,7 @@ import com.portfolio.usermanagement.entity.Role;
 import com.portfolio.usermanagement.entity.User;
 import com.portfolio.usermanagement.repository.RoleRepository;
 import com.portfolio.usermanagement.repository.UserRepository;
+import com.portfolio.usermanagement.security.SecureIdGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +15,6 @@ import org.springframework.stereotype.Component;
 
 import java.util.HashSet;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * Secure admin initialization component.
@@ -74,7 +74,7 @@ public class AdminInitializer implements CommandLineRunner {
             roles.add(adminRole);
 
             User admin = User.builder()
-                    .id(UUID.randomUUID())
+                    .id(SecureIdGenerator.uuid())
                     .username(adminUsername)
                     .email(adminEmail != null ? adminEmail : adminUsername + "@system.local")
                     .password(passwordEncoder.encode(adminPassword))
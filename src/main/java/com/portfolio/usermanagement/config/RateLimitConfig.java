@@ -0,0 +1,33 @@
+package com.portfolio.usermanagement.config;
+
+import com.portfolio.usermanagement.security.ratelimit.algorithm.RateLimitAlgorithm;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.RateLimitAlgorithmType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the rate limiting engine.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitConfig.class);
+
+    /**
+     * Creates the algorithm selected by {@code app.rate-limit.algorithm}.
+     * Declaring a custom {@link RateLimitAlgorithm} bean replaces the built-in ones.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitAlgorithm rateLimitAlgorithm(
+            @Value("${app.rate-limit.algorithm:token-bucket}") RateLimitAlgorithmType type) {
+        logger.info("Using {} rate limit algorithm", type);
+        return type.create();
+    }
+}
@@ -0,0 +1,109 @@
+package com.portfolio.usermanagement.config;
+
+import com.portfolio.usermanagement.security.ratelimit.NetworkAction;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitKeyType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit policy table bound from {@code app.rate-limit}.
+ *
+ * Policies are evaluated in declaration order and the first one matching the
+ * request wins. Requests matching no policy use the default quota keyed by
+ * client IP.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Default per-minute quota for requests that match no policy.
+     */
+    private int requestsPerMinute = 60;
+
+    /**
+     * Default per-hour quota for requests that match no policy.
+     */
+    private int requestsPerHour = 1000;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    /**
+     * CIDR rules checked before any bucket work; rules from the network_rules
+     * table are merged in and win for identical prefixes.
+     */
+    private List<Network> networks = new ArrayList<>();
+
+    /**
+     * CIDRs of reverse proxies whose X-Forwarded-For entries are believed;
+     * the header is ignored for all other peers.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /**
+         * Unique policy name; also prefixes the stored client keys.
+         */
+        private String name;
+
+        /**
+         * Ant-style path patterns, e.g. {@code /api/users/**}.
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * HTTP methods the policy applies to; empty means all methods.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Whether clients are identified by IP address or by JWT subject.
+         */
+        private RateLimitKeyType key = RateLimitKeyType.IP;
+
+        /**
+         * Per-minute quota; falls back to the default quota when unset.
+         */
+        private Integer requestsPerMinute;
+
+        /**
+         * Per-hour quota; falls back to the default quota when unset.
+         */
+        private Integer requestsPerHour;
+
+        /**
+         * Tokens consumed by each matching request.
+         */
+        private int cost = 1;
+
+        /**
+         * Exempt requests bypass the rate limiter entirely.
+         */
+        private boolean exempt;
+    }
+
+    @Getter
+    @Setter
+    public static class Network {
+
+        /**
+         * IPv4 or IPv6 prefix, e.g. {@code 10.0.0.0/8}.
+         */
+        private String cidr;
+
+        private NetworkAction action;
+
+        /**
+         * Policy applied to the whole network when the action is LIMIT.
+         */
+        private String policy;
+    }
+}
@@ -1,5 +1,8 @@
 package com.portfolio.usermanagement.config;
 
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.security.BoundedPasswordEncoder;
+import com.portfolio.usermanagement.security.CalibratedPasswordEncoders;
 import com.portfolio.usermanagement.security.jwt.AuthTokenFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,8 +16,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -35,15 +38,48 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserDetailsPasswordService userDetailsPasswordService;
+
     @Autowired
     private AuthTokenFilter authTokenFilter;
 
     @Autowired
     private com.portfolio.usermanagement.security.RateLimitFilter rateLimitFilter;
 
+    @Autowired
+    private MetricsService metricsService;
+
     @Value("${app.security.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${app.security.password-hashing.algorithm:bcrypt}")
+    private String passwordHashingAlgorithm;
+
+    @Value("${app.security.password-hashing.calibrate:true}")
+    private boolean passwordHashingCalibrate;
+
+    @Value("${app.security.password-hashing.target-ms:250}")
+    private long passwordHashingTargetMs;
+
+    @Value("${app.security.password-hashing.bcrypt.strength:12}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password-hashing.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${app.security.password-hashing.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${app.security.password-hashing.retry-after-seconds:1}")
+    private long passwordHashingRetryAfterSeconds;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -62,7 +98,9 @@ public class SecurityConfig {
                     permissions.policy("geolocation=(), camera=(), microphone=()"))
             )
             .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/api/auth/logout-all").authenticated()
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                 .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
@@ -82,6 +120,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehashes passwords stored with an outdated algorithm or cost after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -92,7 +132,11 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        // Hashing runs on its own bounded pool so login storms cannot occupy every request thread
+        PasswordEncoder encoder = CalibratedPasswordEncoders.create(passwordHashingAlgorithm, passwordHashingCalibrate,
+                passwordHashingTargetMs, bcryptStrength, argon2MemoryKib, argon2Iterations);
+        return new BoundedPasswordEncoder(encoder, metricsService,
+                passwordHashingThreads, passwordHashingQueueCapacity, passwordHashingRetryAfterSeconds);
     }
 
     @Bean
@@ -14,6 +14,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
@@ -73,4 +74,15 @@ public class AuthController {
         authService.logout(request, accessToken);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/logout-all")
+    @Operation(
+        summary = "Logout from all devices",
+        description = "Revoke every access token and refresh token issued to the current user",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<Void> logoutAll(Authentication authentication) {
+        authService.logoutAll(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
 }
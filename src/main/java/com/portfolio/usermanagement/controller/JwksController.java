@@ -0,0 +1,43 @@
+package com.portfolio.usermanagement.controller;
+
+import com.portfolio.usermanagement.security.jwt.SigningKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@Tag(name = "Authentication", description = "Authentication and registration endpoints")
+public class JwksController {
+
+    @Autowired
+    private SigningKeyRing signingKeyRing;
+
+    @Value("${jwt.signing.jwks-max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "JSON Web Key Set",
+        description = "Public keys for verifying access tokens locally, selected by the kid header. Empty when tokens are HMAC-signed."
+    )
+    public ResponseEntity<String> jwks(WebRequest request) {
+        String jwks = signingKeyRing.jwksJson();
+        String etag = "\"" + Integer.toHexString(jwks.hashCode()) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .eTag(etag)
+                .body(jwks);
+    }
+}
@@ -0,0 +1,38 @@
+package com.portfolio.usermanagement.controller;
+
+import com.portfolio.usermanagement.dto.request.IntrospectionRequest;
+import com.portfolio.usermanagement.dto.response.TokenIntrospectionResponse;
+import com.portfolio.usermanagement.security.jwt.TokenIntrospectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tokens")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Authentication", description = "Authentication and registration endpoints")
+public class TokenIntrospectionController {
+
+    @Autowired
+    private TokenIntrospectionService tokenIntrospectionService;
+
+    @PostMapping("/introspect")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Introspect access tokens",
+        description = "Resolve a batch of access tokens to their active flag, subject, roles and expiry, in request order (Admin only)"
+    )
+    public ResponseEntity<List<TokenIntrospectionResponse>> introspect(@Valid @RequestBody IntrospectionRequest request) {
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(request.getTokens()));
+    }
+}
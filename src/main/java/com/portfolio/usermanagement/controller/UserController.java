@@ -64,6 +64,14 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/revoke-sessions")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Revoke user sessions", description = "Revoke every access token and refresh token issued to a user (Admin only)")
+    public ResponseEntity<Void> revokeSessions(@PathVariable UUID id) {
+        userService.revokeSessions(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Search users", description = "Search users by username or email (Admin only)")
@@ -0,0 +1,26 @@
+package com.portfolio.usermanagement.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for batch token introspection.
+ * Results are returned in the same order as the tokens.
+ *
+ * @author Portfolio Project
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectionRequest {
+
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = 100, message = "At most 100 tokens can be introspected per request")
+    private List<@NotBlank(message = "Token must not be blank") String> tokens;
+}
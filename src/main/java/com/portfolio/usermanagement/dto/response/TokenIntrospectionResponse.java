@@ -0,0 +1,57 @@
+package com.portfolio.usermanagement.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Introspection result for one access token, following RFC 7662.
+ * Inactive tokens carry no other fields, so the response does not reveal
+ * why a token was rejected.
+ *
+ * @author Portfolio Project
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionResponse {
+
+    private boolean active;
+
+    /**
+     * Username the token was issued to.
+     */
+    private String sub;
+
+    @JsonProperty("user_id")
+    private UUID userId;
+
+    private List<String> roles;
+
+    /**
+     * Expiry, in seconds since the epoch.
+     */
+    private Long exp;
+
+    /**
+     * Issue time, in seconds since the epoch.
+     */
+    private Long iat;
+
+    private String jti;
+
+    @JsonProperty("token_type")
+    private String tokenType;
+
+    public static TokenIntrospectionResponse inactive() {
+        return new TokenIntrospectionResponse();
+    }
+}
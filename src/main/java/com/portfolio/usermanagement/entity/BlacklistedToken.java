@@ -16,7 +16,8 @@ import java.time.Instant;
 @Table(name = "blacklisted_tokens",
        indexes = {
            @Index(name = "idx_jti", columnList = "jti"),
-           @Index(name = "idx_expiry", columnList = "expiry_time")
+           @Index(name = "idx_expiry", columnList = "expiry_time"),
+           @Index(name = "idx_blacklisted_at", columnList = "blacklisted_at")
        })
 @Data
 @Builder
@@ -0,0 +1,50 @@
+package com.portfolio.usermanagement.entity;
+
+import com.portfolio.usermanagement.security.jwt.SigningAlgorithm;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Asymmetric key pair in the JWT signing key ring.
+ * The private key is stored encrypted; see {@code SigningKeyRing}.
+ */
+@Entity
+@Table(name = "jwt_signing_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtSigningKey {
+
+    /**
+     * RFC 7638 thumbprint of the public key
+     */
+    @Id
+    @Column(name = "kid", length = 64)
+    private String kid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "algorithm", nullable = false, length = 10)
+    private SigningAlgorithm algorithm;
+
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey;
+
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey;
+
+    @Column(name = "activates_at", nullable = false)
+    private Instant activatesAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+}
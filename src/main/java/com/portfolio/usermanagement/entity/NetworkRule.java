@@ -0,0 +1,54 @@
+package com.portfolio.usermanagement.entity;
+
+import com.portfolio.usermanagement.security.ratelimit.NetworkAction;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Rate limit rule for a CIDR prefix, managed at runtime by operators.
+ * Rules are merged with the ones from configuration on every reload.
+ */
+@Entity
+@Table(name = "network_rules")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * IPv4 or IPv6 prefix, e.g. 10.0.0.0/8
+     */
+    @Column(name = "cidr", nullable = false, unique = true, length = 49)
+    private String cidr;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", nullable = false, length = 10)
+    private NetworkAction action;
+
+    /**
+     * Rate limit policy name used by LIMIT rules
+     */
+    @Column(name = "policy", length = 100)
+    private String policy;
+
+    @Column(name = "description")
+    private String description;
+
+    @Builder.Default
+    @Column(name = "enabled", nullable = false)
+    private boolean enabled = true;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+}
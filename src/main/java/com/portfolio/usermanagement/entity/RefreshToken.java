@@ -35,9 +35,9 @@ public class RefreshToken extends BaseEntity {
     private Long id;
 
     /**
-     * The refresh token string (UUID-based).
+     * The refresh token string (256 random bits, base64url).
      */
-    @Column(name = "token", nullable = false, unique = true, length = 36)
+    @Column(name = "token", nullable = false, unique = true, length = 64)
     private String token;
 
     /**
@@ -0,0 +1,45 @@
+package com.portfolio.usermanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Revocation epoch of a deleted user.
+ * Outlives the users row so the user's access tokens stay rejected until they expire.
+ */
+@Entity
+@Table(name = "revoked_subjects",
+       indexes = {
+           @Index(name = "idx_revoked_subjects_valid_after", columnList = "tokens_valid_after"),
+           @Index(name = "idx_revoked_subjects_expires_at", columnList = "expires_at")
+       })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedSubject {
+
+    /**
+     * Subject (username) of the revoked tokens
+     */
+    @Id
+    @Column(name = "username", length = 50)
+    private String username;
+
+    /**
+     * Access tokens issued at or before this time are revoked
+     */
+    @Column(name = "tokens_valid_after", nullable = false)
+    private Instant tokensValidAfter;
+
+    /**
+     * When the last token the epoch could reject expires (safe to delete after this)
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -3,6 +3,7 @@ package com.portfolio.usermanagement.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -16,6 +17,7 @@ import java.util.UUID;
  * - Many-to-Many relationship with Role for RBAC
  * - One-to-One relationship with Profile for extended information
  * - Account status tracking (enabled/locked)
+ * - Revocation epoch invalidating all previously issued access tokens
  * - Audit fields inherited from BaseEntity
  *
  * @author Portfolio Project
@@ -26,7 +28,8 @@ import java.util.UUID;
     indexes = {
         @Index(name = "idx_user_username", columnList = "username", unique = true),
         @Index(name = "idx_user_email", columnList = "email", unique = true),
-        @Index(name = "idx_user_enabled", columnList = "enabled")
+        @Index(name = "idx_user_enabled", columnList = "enabled"),
+        @Index(name = "idx_user_tokens_valid_after", columnList = "tokens_valid_after")
     }
 )
 @Getter
@@ -74,6 +77,9 @@ public class User extends BaseEntity {
     @Builder.Default
     private Boolean credentialsNonExpired = true;
 
+    @Column(name = "tokens_valid_after")
+    private Instant tokensValidAfter;
+
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
         name = "user_roles",
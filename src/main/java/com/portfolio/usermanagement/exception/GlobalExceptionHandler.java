@@ -227,6 +227,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, headers, HttpStatus.TOO_MANY_REQUESTS);
     }
 
+    // ==================== Service Unavailable Exceptions (503) ====================
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+        logger.warn("Service unavailable: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Service Unavailable",
+            ex.getErrorCode().getCode(),
+            ex.getMessage(),
+            getPath(request)
+        );
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ex.getRetryAfterSeconds() != null) {
+            headers.add(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        }
+
+        return new ResponseEntity<>(error, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     // ==================== Validation Exceptions (422) ====================
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
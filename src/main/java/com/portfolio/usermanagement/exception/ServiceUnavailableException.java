@@ -0,0 +1,27 @@
+package com.portfolio.usermanagement.exception;
+
+/**
+ * Exception thrown when the server is temporarily out of capacity.
+ * Maps to HTTP 503 Service Unavailable.
+ *
+ * @author Portfolio Project
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+    private final Long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, Long retryAfterSeconds) {
+        super(message);
+        this.errorCode = ErrorCode.SERVICE_UNAVAILABLE;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
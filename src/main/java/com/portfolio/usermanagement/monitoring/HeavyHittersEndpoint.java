@@ -0,0 +1,32 @@
+package com.portfolio.usermanagement.monitoring;
+
+import com.portfolio.usermanagement.security.ratelimit.HeavyHitterDetector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint listing the current top rate limit offenders.
+ * Exposed at {@code /actuator/heavyhitters} (admin only).
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+@RequiredArgsConstructor
+public class HeavyHittersEndpoint {
+
+    private final HeavyHitterDetector detector;
+
+    @ReadOperation
+    public Map<String, Object> heavyHitters() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", detector.isEnabled());
+        body.put("blockThreshold", detector.getBlockThreshold());
+        body.put("windowMs", detector.getWindowMs());
+        body.put("offenders", detector.getTopOffenders());
+        return body;
+    }
+}
@@ -1,13 +1,17 @@
 package com.portfolio.usermanagement.monitoring;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
 import java.util.function.Supplier;
 
 /**
@@ -117,4 +121,72 @@ public class MetricsService {
                 .increment();
         log.warn("Rate limit violation recorded for: {}", identifier);
     }
+
+    /**
+     * Records a request short-circuited by heavy hitter detection.
+     */
+    public void recordHeavyHitterBlocked() {
+        Counter.builder("rate.limit.heavy.hitters.blocked")
+                .description("Requests rejected because the client is a heavy hitter")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Registers gauges for the heaviest rate-limited clients.
+     * Offenders are tagged by rank rather than by key to keep cardinality bounded.
+     */
+    public void registerHeavyHitterGauges(int ranks, IntToLongFunction estimateAtRank, Supplier<Number> trackedCount) {
+        for (int rank = 0; rank < ranks; rank++) {
+            int index = rank;
+            Gauge.builder("rate.limit.heavy.hitters.estimate", () -> estimateAtRank.applyAsLong(index))
+                    .description("Estimated weighted requests per window of the top offenders")
+                    .tag("rank", String.valueOf(rank + 1))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("rate.limit.heavy.hitters.tracked", trackedCount)
+                .description("Clients currently tracked as heavy hitters")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers gauges for the password hashing pool.
+     */
+    public void registerPasswordHashingGauges(Supplier<Number> queueDepth, Supplier<Number> activeThreads) {
+        Gauge.builder("password.hashing.queue.depth", queueDepth)
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", activeThreads)
+                .description("Password hashing threads currently busy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records how long a password hashing request waited in the queue.
+     */
+    public void recordPasswordHashingWait(long waitNanos) {
+        Timer.builder("password.hashing.wait")
+                .description("Time password hashing requests spend queued")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a password hashing request rejected because the queue was full.
+     */
+    public void recordPasswordHashingRejected() {
+        Counter.builder("password.hashing.rejected")
+                .description("Password hashing requests rejected at capacity")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Exposes size, hit/miss and eviction metrics of an in-process cache.
+     * The cache must be built with {@code recordStats()}.
+     */
+    public void monitorCache(String name, Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,6 +33,24 @@ public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedTok
      */
     boolean existsByJti(String jti);
 
+    /**
+     * JTIs and expiry times of all tokens that have not expired yet.
+     *
+     * @param now current timestamp
+     * @return unexpired blacklist entries
+     */
+    @Query("SELECT bt.jti AS jti, bt.expiryTime AS expiryTime FROM BlacklistedToken bt WHERE bt.expiryTime > :now")
+    List<RevokedJti> findUnexpired(@Param("now") Instant now);
+
+    /**
+     * JTIs and expiry times of tokens blacklisted at or after a point in time, by any node.
+     *
+     * @param since lower bound for blacklisted_at
+     * @return recently blacklisted entries
+     */
+    @Query("SELECT bt.jti AS jti, bt.expiryTime AS expiryTime FROM BlacklistedToken bt WHERE bt.blacklistedAt >= :since")
+    List<RevokedJti> findBlacklistedSince(@Param("since") Instant since);
+
     /**
      * Delete all expired tokens (tokens whose expiry time has passed).
      *
@@ -49,4 +68,13 @@ public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedTok
      */
     @Query("SELECT COUNT(bt) FROM BlacklistedToken bt")
     long countBlacklistedTokens();
+
+    /**
+     * Blacklist entry without the audit columns.
+     */
+    interface RevokedJti {
+        String getJti();
+
+        Instant getExpiryTime();
+    }
 }
@@ -0,0 +1,40 @@
+package com.portfolio.usermanagement.repository;
+
+import com.portfolio.usermanagement.entity.JwtSigningKey;
+import com.portfolio.usermanagement.security.jwt.SigningAlgorithm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for the JWT signing key ring.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    /**
+     * Find keys that may still sign or verify tokens.
+     *
+     * @param algorithm the configured signing algorithm
+     * @param now       current timestamp
+     * @return unexpired keys, latest activation first
+     */
+    List<JwtSigningKey> findByAlgorithmAndExpiresAtAfterOrderByActivatesAtDescKidAsc(SigningAlgorithm algorithm, Instant now);
+
+    /**
+     * Delete keys whose tokens have all expired.
+     *
+     * @param now current timestamp
+     * @return number of deleted keys
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JwtSigningKey k WHERE k.expiresAt < :now")
+    int deleteExpiredKeys(@Param("now") Instant now);
+}
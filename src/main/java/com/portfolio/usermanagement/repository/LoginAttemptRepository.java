@@ -6,8 +6,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,11 +27,78 @@ public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, Long
     Optional<LoginAttempt> findByUsername(String username);
 
     /**
-     * Delete login attempt record for a specific username.
+     * Count a failed login in one statement, safe under concurrent failures
+     * for the same username, including its first one. The count starts over
+     * when the window has passed; the account is locked when the count
+     * reaches {@code maxAttempts}, and an active lock is kept. Like
+     * {@link RateLimitRepository#consumeTokens}, it needs no surrounding
+     * transaction.
      *
      * @param username the username
+     * @param now current timestamp
+     * @param windowStart attempts before this no longer count
+     * @param lockUntil lock expiry to set if this failure reaches the threshold
+     * @param maxAttempts failures in the window that lock the account
+     * @return the count in the current window and whether the account is locked
      */
-    void deleteByUsername(String username);
+    @Query(value = "INSERT INTO login_attempts (username, attempt_count, first_attempt_time, last_updated) " +
+                   "VALUES (:username, 1, :now, :now) " +
+                   "ON CONFLICT (username) DO UPDATE SET " +
+                   "attempt_count = CASE WHEN login_attempts.first_attempt_time < :windowStart THEN 1 " +
+                   "ELSE login_attempts.attempt_count + 1 END, " +
+                   "first_attempt_time = CASE WHEN login_attempts.first_attempt_time < :windowStart THEN :now " +
+                   "ELSE login_attempts.first_attempt_time END, " +
+                   "lock_until = CASE WHEN login_attempts.lock_until > :now THEN login_attempts.lock_until " +
+                   "WHEN login_attempts.first_attempt_time >= :windowStart " +
+                   "AND login_attempts.attempt_count + 1 >= :maxAttempts THEN :lockUntil " +
+                   "ELSE NULL END, " +
+                   "last_updated = :now " +
+                   "RETURNING attempt_count AS attempts, COALESCE(lock_until > :now, FALSE) AS locked",
+           nativeQuery = true)
+    FailedAttempts recordFailedAttempt(@Param("username") String username, @Param("now") Instant now,
+                                       @Param("windowStart") Instant windowStart,
+                                       @Param("lockUntil") Instant lockUntil,
+                                       @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Store a lock decided in memory, creating the record if there is none.
+     *
+     * @param username the username
+     * @param attempts failed attempts that led to the lock
+     * @param now current timestamp
+     * @param lockUntil lock expiry
+     * @return number of affected records
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO login_attempts (username, attempt_count, first_attempt_time, lock_until, last_updated) " +
+                   "VALUES (:username, :attempts, :now, :lockUntil, :now) " +
+                   "ON CONFLICT (username) DO UPDATE SET " +
+                   "attempt_count = EXCLUDED.attempt_count, first_attempt_time = EXCLUDED.first_attempt_time, " +
+                   "lock_until = EXCLUDED.lock_until, last_updated = EXCLUDED.last_updated",
+           nativeQuery = true)
+    int upsertLock(@Param("username") String username, @Param("attempts") int attempts,
+                   @Param("now") Instant now, @Param("lockUntil") Instant lockUntil);
+
+    /**
+     * Usernames and lock expiry of all accounts locked at a point in time.
+     *
+     * @param now current timestamp
+     * @return active locks
+     */
+    @Query("SELECT la.username AS username, la.lockUntil AS lockUntil FROM LoginAttempt la WHERE la.lockUntil > :now")
+    List<ActiveLock> findActiveLocks(@Param("now") Instant now);
+
+    /**
+     * Delete login attempt record for a specific username, in one statement.
+     *
+     * @param username the username
+     * @return number of deleted records
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LoginAttempt la WHERE la.username = :username")
+    int deleteByUsername(@Param("username") String username);
 
     /**
      * Delete all expired login attempt records.
@@ -49,4 +118,22 @@ public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, Long
         @Param("lockExpiredBefore") Instant lockExpiredBefore,
         @Param("attemptExpiredBefore") Instant attemptExpiredBefore
     );
+
+    /**
+     * Outcome of {@link #recordFailedAttempt}.
+     */
+    interface FailedAttempts {
+        Integer getAttempts();
+
+        Boolean getLocked();
+    }
+
+    /**
+     * Locked account without the attempt counters.
+     */
+    interface ActiveLock {
+        String getUsername();
+
+        Instant getLockUntil();
+    }
 }
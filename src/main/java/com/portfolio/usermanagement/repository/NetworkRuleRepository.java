@@ -0,0 +1,21 @@
+package com.portfolio.usermanagement.repository;
+
+import com.portfolio.usermanagement.entity.NetworkRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for network (CIDR) rate limit rules.
+ */
+@Repository
+public interface NetworkRuleRepository extends JpaRepository<NetworkRule, Long> {
+
+    /**
+     * Find all rules that should be loaded into the network trie.
+     *
+     * @return enabled rules
+     */
+    List<NetworkRule> findByEnabledTrue();
+}
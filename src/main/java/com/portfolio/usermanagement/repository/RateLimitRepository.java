@@ -6,8 +6,11 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -24,6 +27,94 @@ public interface RateLimitRepository extends JpaRepository<RateLimitEntry, Long>
      */
     Optional<RateLimitEntry> findByClientKey(String clientKey);
 
+    /**
+     * Find rate limit entries for a batch of client keys.
+     * Used by the write-behind flush to update existing rows in one query.
+     *
+     * @param clientKeys the client identifiers
+     * @return entries that already exist for the given keys
+     */
+    List<RateLimitEntry> findByClientKeyIn(Collection<String> clientKeys);
+
+    /**
+     * Find entries accessed after the given time.
+     * Used to warm the in-memory buckets on startup.
+     *
+     * @param lastAccessAfter lower bound for the last access time
+     * @return recently active entries
+     */
+    List<RateLimitEntry> findByLastAccessTimeAfter(Instant lastAccessAfter);
+
+    /**
+     * Atomically refill and consume tokens for a client in a single statement.
+     *
+     * Inserts a full bucket for unknown clients; otherwise applies the same
+     * minute/hour refill rules as the in-memory bucket and consumes {@code cost}
+     * tokens. When the client does not have enough tokens the conflicting row is
+     * left untouched and no row is returned.
+     *
+     * @param clientKey     the client identifier
+     * @param cost          number of tokens to consume
+     * @param maxPerMinute  per-minute capacity
+     * @param maxPerHour    per-hour capacity
+     * @param now           current timestamp
+     * @param minuteAgo     refill threshold for the per-minute bucket
+     * @param hourAgo       refill threshold for the per-hour bucket
+     * @return remaining tokens if the request was allowed, empty if it was rejected
+     */
+    @Query(value = "INSERT INTO rate_limit_entries AS r " +
+           "(client_key, tokens, last_refill_time, hourly_tokens, hourly_refill_time, last_access_time) " +
+           "VALUES (:clientKey, :maxPerMinute - :cost, :now, :maxPerHour - :cost, :now, :now) " +
+           "ON CONFLICT (client_key) DO UPDATE SET " +
+           "tokens = (CASE WHEN r.last_refill_time <= :minuteAgo THEN :maxPerMinute ELSE r.tokens END) - :cost, " +
+           "last_refill_time = CASE WHEN r.last_refill_time <= :minuteAgo THEN :now ELSE r.last_refill_time END, " +
+           "hourly_tokens = (CASE WHEN r.hourly_refill_time <= :hourAgo THEN :maxPerHour ELSE r.hourly_tokens END) - :cost, " +
+           "hourly_refill_time = CASE WHEN r.hourly_refill_time <= :hourAgo THEN :now ELSE r.hourly_refill_time END, " +
+           "last_access_time = :now " +
+           "WHERE (CASE WHEN r.last_refill_time <= :minuteAgo THEN :maxPerMinute ELSE r.tokens END) >= :cost " +
+           "AND (CASE WHEN r.hourly_refill_time <= :hourAgo THEN :maxPerHour ELSE r.hourly_tokens END) >= :cost " +
+           "RETURNING LEAST(r.tokens, r.hourly_tokens)",
+           nativeQuery = true)
+    Optional<Integer> consumeTokens(
+        @Param("clientKey") String clientKey,
+        @Param("cost") int cost,
+        @Param("maxPerMinute") int maxPerMinute,
+        @Param("maxPerHour") int maxPerHour,
+        @Param("now") Instant now,
+        @Param("minuteAgo") Instant minuteAgo,
+        @Param("hourAgo") Instant hourAgo
+    );
+
+    /**
+     * Give back leased tokens that were not spent.
+     *
+     * Tokens are only returned to a bucket that has not been refilled since the
+     * lease was taken; returning them to a fresh window would exceed the quota.
+     *
+     * @param clientKey     the client identifier
+     * @param amount        number of unused tokens
+     * @param maxPerMinute  per-minute capacity
+     * @param maxPerHour    per-hour capacity
+     * @param leasedAt      time the lease was taken
+     * @return number of updated entries
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE rate_limit_entries SET " +
+           "tokens = CASE WHEN last_refill_time <= :leasedAt " +
+           "THEN LEAST(tokens + :amount, :maxPerMinute) ELSE tokens END, " +
+           "hourly_tokens = CASE WHEN hourly_refill_time <= :leasedAt " +
+           "THEN LEAST(hourly_tokens + :amount, :maxPerHour) ELSE hourly_tokens END " +
+           "WHERE client_key = :clientKey",
+           nativeQuery = true)
+    int returnTokens(
+        @Param("clientKey") String clientKey,
+        @Param("amount") int amount,
+        @Param("maxPerMinute") int maxPerMinute,
+        @Param("maxPerHour") int maxPerHour,
+        @Param("leasedAt") Instant leasedAt
+    );
+
     /**
      * Delete stale rate limit entries that haven't been accessed recently.
      * This prevents the table from growing indefinitely.
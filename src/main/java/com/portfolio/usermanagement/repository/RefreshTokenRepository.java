@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository for RefreshToken entity.
@@ -48,6 +49,23 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
            "AND rt.revoked = false AND rt.expiryDate > :now")
     List<RefreshToken> findValidTokensByUser(@Param("user") User user, @Param("now") Instant now);
 
+    /**
+     * Revoke a user's valid tokens except the newest {@code keep}, in one statement.
+     *
+     * @param userId the user's id
+     * @param now current timestamp
+     * @param keep number of newest valid tokens left untouched
+     * @return number of revoked tokens
+     */
+    @Modifying
+    @Query(value = "UPDATE refresh_tokens SET revoked = TRUE, revoked_at = :now " +
+                   "WHERE user_id = :userId AND revoked = FALSE AND expiry_date > :now " +
+                   "AND id NOT IN (SELECT id FROM refresh_tokens WHERE user_id = :userId " +
+                   "AND revoked = FALSE AND expiry_date > :now ORDER BY id DESC LIMIT :keep)",
+           nativeQuery = true)
+    int revokeValidTokensExceptNewest(@Param("userId") UUID userId, @Param("now") Instant now,
+                                      @Param("keep") int keep);
+
     /**
      * Delete all refresh tokens for a specific user.
      * Used when user is deleted or all sessions need to be terminated.
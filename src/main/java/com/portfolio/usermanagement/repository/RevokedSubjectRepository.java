@@ -0,0 +1,40 @@
+package com.portfolio.usermanagement.repository;
+
+import com.portfolio.usermanagement.entity.RevokedSubject;
+import com.portfolio.usermanagement.repository.UserRepository.TokenEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for revocation epochs of deleted users.
+ */
+@Repository
+public interface RevokedSubjectRepository extends JpaRepository<RevokedSubject, String> {
+
+    @Query("SELECT rs.tokensValidAfter FROM RevokedSubject rs WHERE rs.username = :username")
+    Optional<Instant> findTokensValidAfterByUsername(@Param("username") String username);
+
+    /**
+     * Epochs set at or after a point in time, by any node.
+     */
+    @Query("SELECT rs.username AS username, rs.tokensValidAfter AS tokensValidAfter FROM RevokedSubject rs " +
+           "WHERE rs.tokensValidAfter >= :since")
+    List<TokenEpoch> findTokenEpochsSince(@Param("since") Instant since);
+
+    /**
+     * Delete epochs that can no longer reject a valid token.
+     *
+     * @param now current timestamp
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedSubject rs WHERE rs.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -3,17 +3,26 @@ package com.portfolio.usermanagement.repository;
 import com.portfolio.usermanagement.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    /**
+     * Roles and profile are joined into the same query; otherwise each is a
+     * further SELECT (the inverse one-to-one profile cannot stay lazy).
+     */
+    @EntityGraph(attributePaths = {"roles", "profile"})
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
@@ -30,4 +39,35 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<User> searchUsers(@Param("search") String search, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Grant a role by id, without loading the role entity. The roles
+     * collection of a user already in the persistence context is not updated.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_roles (user_id, role_id) VALUES (:userId, :roleId)", nativeQuery = true)
+    void addRole(@Param("userId") UUID userId, @Param("roleId") Long roleId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokensValidAfter = :epoch WHERE u.username = :username")
+    int updateTokensValidAfter(@Param("username") String username, @Param("epoch") Instant epoch);
+
+    @Query("SELECT u.tokensValidAfter FROM User u WHERE u.username = :username")
+    Optional<Instant> findTokensValidAfterByUsername(@Param("username") String username);
+
+    /**
+     * Revocation epochs set at or after a point in time, by any node.
+     */
+    @Query("SELECT u.username AS username, u.tokensValidAfter AS tokensValidAfter FROM User u WHERE u.tokensValidAfter >= :since")
+    List<TokenEpoch> findTokenEpochsSince(@Param("since") Instant since);
+
+    interface TokenEpoch {
+        String getUsername();
+
+        Instant getTokensValidAfter();
+    }
 }
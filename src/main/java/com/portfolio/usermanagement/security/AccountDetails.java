@@ -0,0 +1,97 @@
+package com.portfolio.usermanagement.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Principal loaded from the users table.
+ *
+ * Besides what authentication needs, it keeps the user's id and profile
+ * fields, so a login can issue tokens and describe the user without reading
+ * the row again. It is cached with the rest of the user details and evicted
+ * by the same {@link UserDetailsChangedEvent} that profile updates publish.
+ */
+public class AccountDetails extends User {
+
+    private final UUID id;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    private AccountDetails(AccountDetails source, String password) {
+        this(source.id, source.getUsername(), password, source.getAuthorities(),
+                source.isEnabled(), source.isAccountNonExpired(), source.isCredentialsNonExpired(),
+                source.isAccountNonLocked(), source.email, source.firstName, source.lastName,
+                source.createdAt, source.updatedAt);
+    }
+
+    private AccountDetails(UUID id, String username, String password, Collection<? extends GrantedAuthority> authorities,
+                           boolean enabled, boolean accountNonExpired, boolean credentialsNonExpired,
+                           boolean accountNonLocked, String email, String firstName, String lastName,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        super(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Principal for a user entity whose roles are loaded.
+     */
+    public static AccountDetails from(com.portfolio.usermanagement.entity.User user) {
+        Set<GrantedAuthority> authorities = user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
+                .collect(Collectors.toSet());
+        return new AccountDetails(user.getId(), user.getUsername(), user.getPassword(), authorities,
+                user.getEnabled(), user.getAccountNonExpired(), user.getCredentialsNonExpired(),
+                user.getAccountNonLocked(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    /**
+     * Copy that can be handed out: authentication erases the password of its principal.
+     */
+    public AccountDetails copy() {
+        return new AccountDetails(this, getPassword());
+    }
+
+    public AccountDetails withPassword(String password) {
+        return new AccountDetails(this, password);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.portfolio.usermanagement.security;
+
+/**
+ * Where failed logins are counted, selected with
+ * {@code app.security.lockout.mode}. Locks end up in login_attempts in both
+ * modes.
+ */
+public enum AccountLockoutMode {
+
+    /**
+     * Each node counts failures in memory and writes only locks and unlocks;
+     * checks and clean logins cost no query. Counts are per node, and locks
+     * from other nodes apply within the sync interval.
+     */
+    MEMORY,
+
+    /**
+     * Every failure is one atomic upsert on login_attempts, so counts are
+     * exact across nodes and under concurrent failures, and locks apply
+     * everywhere at once. Costs a query per login check and a statement per
+     * successful login.
+     */
+    DATABASE
+}
@@ -2,22 +2,41 @@ package com.portfolio.usermanagement.security;
 
 import com.portfolio.usermanagement.entity.LoginAttempt;
 import com.portfolio.usermanagement.repository.LoginAttemptRepository;
+import com.portfolio.usermanagement.repository.LoginAttemptRepository.ActiveLock;
+import com.portfolio.usermanagement.repository.LoginAttemptRepository.FailedAttempts;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Optional;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service to track failed login attempts and lock accounts after threshold is exceeded.
  * Implements automatic unlocking after a configured timeout period.
  *
- * Now uses database persistence instead of in-memory storage for better reliability
- * and persistence across application restarts.
+ * How failures are counted depends on {@link AccountLockoutMode}. In memory
+ * mode they are counted in one-minute buckets over a sliding window, so
+ * checks and logins without failures cost no query. Updates to one account
+ * are serialized by a lock striped on the username. Only state transitions
+ * are written to login_attempts: locking an account and unlocking it by hand.
+ * Locks are reloaded at startup, and each node picks up the locks and unlocks
+ * of the others every {@code sync-interval-ms}. Failure counts are per node:
+ * spread across nodes, attempts reach the threshold later.
+ *
+ * In database mode every failure is a single upsert that resets the window,
+ * increments the count and sets the lock, and every check reads the record.
  */
 @Service
 public class AccountLockoutService {
@@ -27,118 +46,243 @@ public class AccountLockoutService {
     private static final int MAX_FAILED_ATTEMPTS = 5;
     private static final Duration LOCKOUT_DURATION = Duration.ofMinutes(30);
     private static final Duration FAILED_ATTEMPTS_WINDOW = Duration.ofMinutes(15);
+    private static final int WINDOW_MINUTES = (int) FAILED_ATTEMPTS_WINDOW.toMinutes();
+    private static final int STRIPES = 64;
 
     private final LoginAttemptRepository loginAttemptRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountLockoutMode mode;
+    private final long syncOverlapMs;
+    private final Map<String, AttemptState> states = new ConcurrentHashMap<>();
+    private final Set<String> lockedUsernames = ConcurrentHashMap.newKeySet();
+    private final Object[] stripes = new Object[STRIPES];
 
-    public AccountLockoutService(LoginAttemptRepository loginAttemptRepository) {
+    public AccountLockoutService(LoginAttemptRepository loginAttemptRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${app.security.lockout.mode:memory}") AccountLockoutMode mode,
+                                 @Value("${app.security.lockout.sync-overlap-ms:10000}") long syncOverlapMs) {
         this.loginAttemptRepository = loginAttemptRepository;
+        this.eventPublisher = eventPublisher;
+        this.mode = mode;
+        this.syncOverlapMs = syncOverlapMs;
+        Arrays.setAll(stripes, i -> new Object());
+    }
+
+    @PostConstruct
+    public void initialize() {
+        sync();
     }
 
     /**
      * Record a successful login and clear any failed attempts.
      */
-    @Transactional
     public void loginSucceeded(String username) {
-        loginAttemptRepository.deleteByUsername(username);
+        if (mode == AccountLockoutMode.DATABASE) {
+            loginAttemptRepository.deleteByUsername(username);
+            return;
+        }
+        // No failures on record is the common case: nothing to clear
+        if (!states.containsKey(username)) {
+            return;
+        }
+        synchronized (stripe(username)) {
+            AttemptState state = states.get(username);
+            // A concurrent failure may have locked the account meanwhile; that lock stands
+            if (state != null && !state.isLocked(Instant.now())) {
+                remove(username);
+            }
+        }
         logger.debug("Login succeeded for user: {}", username);
     }
 
     /**
      * Record a failed login attempt and lock account if threshold exceeded.
+     *
+     * @return true if the account is locked after this failure
      */
-    @Transactional
-    public void loginFailed(String username) {
+    public boolean loginFailed(String username) {
+        if (mode == AccountLockoutMode.DATABASE) {
+            return recordFailureInDatabase(username);
+        }
         Instant now = Instant.now();
+        Instant lockUntil = null;
+        synchronized (stripe(username)) {
+            AttemptState state = states.computeIfAbsent(username, key -> new AttemptState());
+            if (state.isLocked(now)) {
+                return true;
+            }
 
-        // Find existing attempt record or create new one
-        LoginAttempt attempt = loginAttemptRepository.findByUsername(username)
-                .orElse(createNewLoginAttempt(username, now));
-
-        // Reset attempts if the time window has expired (15 minutes)
-        // This means attempts older than 15 minutes don't count toward lockout
-        if (Duration.between(attempt.getFirstAttemptTime(), now).compareTo(FAILED_ATTEMPTS_WINDOW) > 0) {
-            attempt.setAttemptCount(0);
-            attempt.setFirstAttemptTime(now);
-            attempt.setLockUntil(null);
+            int currentAttempts = state.recordFailure(minute(now));
+            if (currentAttempts >= MAX_FAILED_ATTEMPTS) {
+                lockUntil = now.plus(LOCKOUT_DURATION);
+                boolean persisted = persistLock(username, currentAttempts, lockUntil, now);
+                state.lock(lockUntil, now, persisted);
+                lockedUsernames.add(username);
+            } else {
+                logger.debug("Failed login attempt {} for user: {}", currentAttempts, username);
+            }
         }
 
-        // Increment attempt count
-        int currentAttempts = attempt.getAttemptCount() + 1;
-        attempt.setAttemptCount(currentAttempts);
-        attempt.setLastUpdated(now);
-
-        // Lock account if max attempts reached within the time window
-        if (currentAttempts >= MAX_FAILED_ATTEMPTS) {
-            attempt.setLockUntil(now.plus(LOCKOUT_DURATION));
-            logger.warn("Account locked due to {} failed login attempts: {}", MAX_FAILED_ATTEMPTS, username);
-        } else {
-            logger.debug("Failed login attempt {} for user: {}", currentAttempts, username);
+        if (lockUntil == null) {
+            return false;
         }
-
-        loginAttemptRepository.save(attempt);
+        logger.warn("Account locked due to {} failed login attempts: {}", MAX_FAILED_ATTEMPTS, username);
+        eventPublisher.publishEvent(new UserDetailsChangedEvent(username));
+        return true;
     }
 
     /**
      * Check if an account is currently locked.
      */
     public boolean isLocked(String username) {
-        Optional<LoginAttempt> attemptOpt = loginAttemptRepository.findByUsername(username);
-        if (attemptOpt.isEmpty()) {
-            return false;
+        return getStatus(username).locked();
+    }
+
+    /**
+     * Lock state of an account, answered from memory. An expired lock is
+     * dropped here; its row stays until the hourly cleanup, which is harmless
+     * since only unexpired locks are ever loaded.
+     */
+    public LockoutStatus getStatus(String username) {
+        if (mode == AccountLockoutMode.DATABASE) {
+            Instant now = Instant.now();
+            return loginAttemptRepository.findByUsername(username)
+                    .map(LoginAttempt::getLockUntil)
+                    .filter(now::isBefore)
+                    .map(lockUntil -> new LockoutStatus(true, Duration.between(now, lockUntil)))
+                    .orElse(LockoutStatus.UNLOCKED);
+        }
+        if (!states.containsKey(username)) {
+            return LockoutStatus.UNLOCKED;
         }
 
-        LoginAttempt attempt = attemptOpt.get();
         Instant now = Instant.now();
-        Instant lockUntil = attempt.getLockUntil();
+        boolean expired;
+        synchronized (stripe(username)) {
+            AttemptState state = states.get(username);
+            if (state == null) {
+                return LockoutStatus.UNLOCKED;
+            }
+            if (state.isLocked(now)) {
+                return new LockoutStatus(true, Duration.between(now, state.lockUntil));
+            }
+            expired = state.lockUntil != null;
+            state.unlock();
+            lockedUsernames.remove(username);
+            if (state.isIdle(minute(now))) {
+                states.remove(username);
+            }
+        }
 
-        // Check if lock has expired
-        if (lockUntil != null && now.isAfter(lockUntil)) {
-            loginAttemptRepository.deleteByUsername(username);
+        if (expired) {
             logger.info("Account lock expired for user: {}", username);
-            return false;
+            eventPublisher.publishEvent(new UserDetailsChangedEvent(username));
         }
-
-        return lockUntil != null && now.isBefore(lockUntil);
+        return LockoutStatus.UNLOCKED;
     }
 
     /**
      * Get the number of failed login attempts for a user.
      */
     public int getFailedAttempts(String username) {
-        return loginAttemptRepository.findByUsername(username)
-                .map(LoginAttempt::getAttemptCount)
-                .orElse(0);
+        if (mode == AccountLockoutMode.DATABASE) {
+            Instant windowStart = Instant.now().minus(FAILED_ATTEMPTS_WINDOW);
+            return loginAttemptRepository.findByUsername(username)
+                    .filter(attempt -> !attempt.getFirstAttemptTime().isBefore(windowStart))
+                    .map(LoginAttempt::getAttemptCount)
+                    .orElse(0);
+        }
+        synchronized (stripe(username)) {
+            AttemptState state = states.get(username);
+            return state != null ? state.failures(minute(Instant.now())) : 0;
+        }
     }
 
     /**
      * Get the time remaining until account is unlocked (null if not locked).
      */
     public Duration getRemainingLockoutTime(String username) {
-        Optional<LoginAttempt> attemptOpt = loginAttemptRepository.findByUsername(username);
-        if (attemptOpt.isEmpty()) {
-            return null;
-        }
+        return getStatus(username).remaining();
+    }
 
-        Instant lockUntil = attemptOpt.get().getLockUntil();
-        if (lockUntil == null) {
-            return null;
+    /**
+     * Manually unlock an account (e.g., by admin action).
+     */
+    public void unlock(String username) {
+        synchronized (stripe(username)) {
+            remove(username);
+            loginAttemptRepository.deleteByUsername(username);
         }
+        logger.info("Account manually unlocked: {}", username);
+        eventPublisher.publishEvent(new UserDetailsChangedEvent(username));
+    }
 
+    /**
+     * Apply locks and unlocks made on other nodes. Every lock is written
+     * through, so a lock held here but missing from the table was lifted
+     * elsewhere, unless it is too recent for its row to be visible yet.
+     */
+    @Scheduled(fixedDelayString = "${app.security.lockout.sync-interval-ms:5000}")
+    public void sync() {
+        if (mode != AccountLockoutMode.MEMORY) {
+            return;
+        }
         Instant now = Instant.now();
-        if (now.isAfter(lockUntil)) {
-            return null;
+        Map<String, Instant> persisted = new HashMap<>();
+        try {
+            for (ActiveLock lock : loginAttemptRepository.findActiveLocks(now)) {
+                persisted.put(lock.getUsername(), lock.getLockUntil());
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Account lockout sync failed: {}", e.getMessage());
+            return;
         }
 
-        return Duration.between(now, lockUntil);
+        persisted.forEach((username, lockUntil) -> {
+            synchronized (stripe(username)) {
+                AttemptState state = states.computeIfAbsent(username, key -> new AttemptState());
+                if (state.lockUntil == null || state.lockUntil.isBefore(lockUntil)) {
+                    state.lock(lockUntil, now, true);
+                    lockedUsernames.add(username);
+                }
+            }
+        });
+
+        Instant settledBefore = now.minusMillis(syncOverlapMs);
+        for (String username : lockedUsernames) {
+            if (persisted.containsKey(username)) {
+                continue;
+            }
+            synchronized (stripe(username)) {
+                AttemptState state = states.get(username);
+                if (state != null && state.isLocked(now) && state.persisted
+                        && state.lockedAt.isBefore(settledBefore)) {
+                    remove(username);
+                    logger.info("Account unlocked on another node: {}", username);
+                }
+            }
+        }
     }
 
     /**
-     * Manually unlock an account (e.g., by admin action).
+     * Forget accounts whose failures have left the window and that are not locked.
      */
-    @Transactional
-    public void unlock(String username) {
-        loginAttemptRepository.deleteByUsername(username);
-        logger.info("Account manually unlocked: {}", username);
+    @Scheduled(fixedRate = 60000)
+    public void evictIdle() {
+        Instant now = Instant.now();
+        long minute = minute(now);
+        for (String username : states.keySet()) {
+            synchronized (stripe(username)) {
+                AttemptState state = states.get(username);
+                if (state != null && !state.isLocked(now)) {
+                    state.unlock();
+                    lockedUsernames.remove(username);
+                    if (state.isIdle(minute)) {
+                        states.remove(username);
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -160,14 +304,121 @@ public class AccountLockoutService {
     }
 
     /**
-     * Helper method to create a new LoginAttempt entity.
+     * Count a failure with one upsert. Counts are exact, so exactly one
+     * failure reaches the threshold and reports the lock.
+     *
+     * @return the lock state the upsert returned
      */
-    private LoginAttempt createNewLoginAttempt(String username, Instant now) {
-        LoginAttempt attempt = new LoginAttempt();
-        attempt.setUsername(username);
-        attempt.setAttemptCount(0);
-        attempt.setFirstAttemptTime(now);
-        attempt.setLastUpdated(now);
-        return attempt;
+    private boolean recordFailureInDatabase(String username) {
+        Instant now = Instant.now();
+        FailedAttempts result = loginAttemptRepository.recordFailedAttempt(username, now,
+                now.minus(FAILED_ATTEMPTS_WINDOW), now.plus(LOCKOUT_DURATION), MAX_FAILED_ATTEMPTS);
+
+        if (result.getAttempts() == MAX_FAILED_ATTEMPTS && Boolean.TRUE.equals(result.getLocked())) {
+            logger.warn("Account locked due to {} failed login attempts: {}", MAX_FAILED_ATTEMPTS, username);
+            eventPublisher.publishEvent(new UserDetailsChangedEvent(username));
+        } else {
+            logger.debug("Failed login attempt {} for user: {}", result.getAttempts(), username);
+        }
+        return Boolean.TRUE.equals(result.getLocked());
+    }
+
+    /**
+     * Write a lock through to the table. Runs under the account's stripe, so
+     * writes for one account happen in the order they were decided.
+     *
+     * @return false if the write failed
+     */
+    private boolean persistLock(String username, int attempts, Instant lockUntil, Instant now) {
+        try {
+            loginAttemptRepository.upsertLock(username, attempts, now, lockUntil);
+            return true;
+        } catch (DataAccessException e) {
+            // Still locked on this node; other nodes will not see it
+            logger.warn("Could not persist lock for user {}: {}", username, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Forget an account entirely; call under its stripe.
+     */
+    private void remove(String username) {
+        states.remove(username);
+        lockedUsernames.remove(username);
+    }
+
+    private Object stripe(String username) {
+        return stripes[Math.floorMod(username.hashCode(), STRIPES)];
+    }
+
+    private static long minute(Instant instant) {
+        return instant.getEpochSecond() / 60;
+    }
+
+    /**
+     * Lockout state of one account.
+     *
+     * @param locked    whether logins are currently refused
+     * @param remaining time until the lock lifts, null if not locked
+     */
+    public record LockoutStatus(boolean locked, Duration remaining) {
+
+        static final LockoutStatus UNLOCKED = new LockoutStatus(false, null);
+    }
+
+    /**
+     * Failures per minute over the window, and the lock if any. Guarded by
+     * the account's stripe.
+     */
+    private static final class AttemptState {
+
+        private final int[] counts = new int[WINDOW_MINUTES];
+        private final long[] minutes = new long[WINDOW_MINUTES];
+        private Instant lockUntil;
+        private Instant lockedAt;
+        private boolean persisted;
+
+        int recordFailure(long minute) {
+            int slot = (int) (minute % WINDOW_MINUTES);
+            if (minutes[slot] != minute) {
+                minutes[slot] = minute;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+            return failures(minute);
+        }
+
+        int failures(long minute) {
+            int total = 0;
+            for (int i = 0; i < WINDOW_MINUTES; i++) {
+                if (minute - minutes[i] < WINDOW_MINUTES) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        boolean isLocked(Instant now) {
+            return lockUntil != null && now.isBefore(lockUntil);
+        }
+
+        boolean isIdle(long minute) {
+            return lockUntil == null && failures(minute) == 0;
+        }
+
+        void lock(Instant until, Instant now, boolean written) {
+            lockUntil = until;
+            lockedAt = now;
+            persisted = written;
+            // The lock outlasts the window; counting starts over once it lifts
+            Arrays.fill(counts, 0);
+        }
+
+        void unlock() {
+            lockUntil = null;
+            lockedAt = null;
+            persisted = false;
+        }
     }
 }
@@ -0,0 +1,100 @@
+package com.portfolio.usermanagement.security;
+
+import com.portfolio.usermanagement.exception.ServiceUnavailableException;
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs password hashing on a dedicated pool with admission control.
+ *
+ * A BCrypt hash costs hundreds of milliseconds of CPU. Run directly on
+ * request threads, a login storm would occupy every one of them and starve
+ * cheap requests. Here hashing gets one thread per core and a bounded queue;
+ * when the queue is full the request fails immediately with
+ * {@link ServiceUnavailableException} (503 with Retry-After) instead of
+ * waiting. The calling thread still blocks while its own hash runs, but the
+ * number of request threads held this way is bounded by the queue.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final MetricsService metricsService;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param threads           hashing threads; 0 or less uses one per available processor
+     * @param queueCapacity     requests allowed to wait for a thread
+     * @param retryAfterSeconds Retry-After sent when the queue is full
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, MetricsService metricsService,
+                                  int threads, int queueCapacity, long retryAfterSeconds) {
+        this.delegate = delegate;
+        this.metricsService = metricsService;
+        this.retryAfterSeconds = retryAfterSeconds;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        metricsService.registerPasswordHashingGauges(() -> executor.getQueue().size(), executor::getActiveCount);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stop the hashing threads; called by Spring when the context closes.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                metricsService.recordPasswordHashingWait(System.nanoTime() - queuedAt);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            metricsService.recordPasswordHashingRejected();
+            throw new ServiceUnavailableException(
+                    "Too many concurrent sign-in requests, please retry shortly", retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing was interrupted", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.portfolio.usermanagement.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the delegating password encoder, with cost tuned to this machine.
+ *
+ * New hashes are stored as {@code {bcrypt}...} or {@code {argon2}...}
+ * depending on the configured algorithm; hashes of either kind, and legacy
+ * hashes without a prefix (plain BCrypt), keep verifying. When calibration
+ * is on, the cost is raised at startup until one verification takes about
+ * the target latency, never going below the configured floor. Hashes made
+ * with another algorithm or a lower cost report
+ * {@link PasswordEncoder#upgradeEncoding(String)}, so they are rehashed on
+ * the user's next successful login.
+ */
+public final class CalibratedPasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedPasswordEncoders.class);
+
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int MAX_ARGON2_ITERATIONS = 10;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private CalibratedPasswordEncoders() {
+    }
+
+    /**
+     * @param algorithm       {@value #BCRYPT} or {@value #ARGON2}, used for new hashes
+     * @param calibrate       whether to tune cost to {@code targetMs}; otherwise the floors are used as-is
+     * @param targetMs        target latency of one verification
+     * @param bcryptStrength  minimum BCrypt log rounds
+     * @param argon2MemoryKib Argon2id memory cost
+     * @param argon2Iterations minimum Argon2id iterations
+     */
+    public static PasswordEncoder create(String algorithm, boolean calibrate, long targetMs,
+                                         int bcryptStrength, int argon2MemoryKib, int argon2Iterations) {
+        if (!BCRYPT.equals(algorithm) && !ARGON2.equals(algorithm)) {
+            throw new IllegalStateException("Unsupported password hashing algorithm: " + algorithm);
+        }
+
+        BCryptPasswordEncoder bcrypt;
+        Argon2PasswordEncoder argon2;
+        if (BCRYPT.equals(algorithm)) {
+            int strength = calibrate ? calibrateBcrypt(bcryptStrength, targetMs) : bcryptStrength;
+            bcrypt = new BCryptPasswordEncoder(strength);
+            argon2 = argon2(argon2MemoryKib, argon2Iterations);
+            logger.info("Password hashing: bcrypt strength {}", strength);
+        } else {
+            int iterations = calibrate ? calibrateArgon2(argon2MemoryKib, argon2Iterations, targetMs) : argon2Iterations;
+            bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+            argon2 = argon2(argon2MemoryKib, iterations);
+            logger.info("Password hashing: argon2id {} KiB, {} iterations", argon2MemoryKib, iterations);
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, argon2);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes stored before prefixes were introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Each extra BCrypt round doubles the cost: stop at the last strength
+     * whose successor would exceed the target.
+     */
+    private static int calibrateBcrypt(int minStrength, long targetMs) {
+        int strength = minStrength;
+        while (strength < MAX_BCRYPT_STRENGTH && 2 * verifyMillis(new BCryptPasswordEncoder(strength)) <= targetMs) {
+            strength++;
+        }
+        return strength;
+    }
+
+    /**
+     * Argon2 cost grows linearly with iterations at fixed memory.
+     */
+    private static int calibrateArgon2(int memoryKib, int minIterations, long targetMs) {
+        double perIteration = Math.max(1, verifyMillis(argon2(memoryKib, 1)));
+        int iterations = (int) Math.floor(targetMs / perIteration);
+        return Math.clamp(iterations, Math.max(MIN_ARGON2_ITERATIONS, minIterations), MAX_ARGON2_ITERATIONS);
+    }
+
+    private static Argon2PasswordEncoder argon2(int memoryKib, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, 1, memoryKib, iterations);
+    }
+
+    private static long verifyMillis(PasswordEncoder encoder) {
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+        long start = System.nanoTime();
+        encoder.matches(SAMPLE_PASSWORD, hash);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
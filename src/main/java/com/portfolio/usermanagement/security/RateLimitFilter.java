@@ -1,5 +1,16 @@
 package com.portfolio.usermanagement.security;
 
+import com.portfolio.usermanagement.security.jwt.JwtUtils;
+import com.portfolio.usermanagement.security.jwt.ParsedToken;
+import com.portfolio.usermanagement.security.ratelimit.ClientAddressResolver;
+import com.portfolio.usermanagement.security.ratelimit.HeavyHitterDetector;
+import com.portfolio.usermanagement.security.ratelimit.IpAddress;
+import com.portfolio.usermanagement.security.ratelimit.NetworkPolicy;
+import com.portfolio.usermanagement.security.ratelimit.NetworkPolicyRegistry;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitKeyType;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicy;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicyResolver;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,65 +18,167 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
 /**
  * Rate limiting filter to prevent brute force attacks and API abuse.
- * Implements a token bucket algorithm per client IP.
  *
- * Now uses database persistence instead of in-memory storage for better reliability
- * and persistence across application restarts.
+ * Each request is mapped to a policy by {@link RateLimitPolicyResolver}: the
+ * policy decides whether the route is exempt, whether clients are keyed by IP
+ * or by JWT subject, the quota and the token cost of the request.
+ *
+ * Bucket state lives in memory and is persisted asynchronously by
+ * {@link RateLimitService}, so this filter never waits on the database.
+ *
+ * CIDR rules from {@link NetworkPolicyRegistry} are applied first: allowed
+ * networks skip rate limiting, denied networks get 403 and LIMIT networks
+ * share one bucket under the rule's policy. Rules and IP keys use the
+ * address from {@link ClientAddressResolver}, which only believes
+ * X-Forwarded-For from trusted proxies.
+ *
+ * Requests are then counted by {@link HeavyHitterDetector}; the heaviest
+ * clients are rejected there, before any per-client state is touched.
  */
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
 
-    private static final int MAX_REQUESTS_PER_MINUTE = 60;
-
     private final RateLimitService rateLimitService;
+    private final RateLimitPolicyResolver policyResolver;
+    private final JwtUtils jwtUtils;
+    private final HeavyHitterDetector heavyHitterDetector;
+    private final NetworkPolicyRegistry networkPolicies;
+    private final ClientAddressResolver clientAddressResolver;
 
-    public RateLimitFilter(RateLimitService rateLimitService) {
+    public RateLimitFilter(RateLimitService rateLimitService,
+                           RateLimitPolicyResolver policyResolver,
+                           JwtUtils jwtUtils,
+                           HeavyHitterDetector heavyHitterDetector,
+                           NetworkPolicyRegistry networkPolicies,
+                           ClientAddressResolver clientAddressResolver) {
         this.rateLimitService = rateLimitService;
+        this.policyResolver = policyResolver;
+        this.jwtUtils = jwtUtils;
+        this.heavyHitterDetector = heavyHitterDetector;
+        this.networkPolicies = networkPolicies;
+        this.clientAddressResolver = clientAddressResolver;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                   HttpServletResponse response,
                                   FilterChain filterChain) throws ServletException, IOException {
-        // Identify client by IP address (handles proxy forwarding)
-        String clientKey = getClientKey(request);
+        RateLimitPolicy policy = policyResolver.resolve(request);
+
+        // Exempt routes (e.g. health probes) never touch the limiter
+        if (policy.isExempt()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        IpAddress clientAddress = clientAddressResolver.resolve(request);
+        IpAddress address = policy.getKeyType() == RateLimitKeyType.IP ? clientAddress : null;
+
+        NetworkPolicy network = clientAddress != null ? networkPolicies.lookup(clientAddress) : null;
+        if (network != null) {
+            switch (network.action()) {
+                case ALLOW -> {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                case DENY -> {
+                    logger.warn("Request from denied network {}: {}", network.block(), clientAddress);
+                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                    response.getWriter().write("{\"error\":\"Access denied.\"}");
+                    response.setContentType("application/json");
+                    return;
+                }
+                case LIMIT -> {
+                    // The whole network shares one bucket, keyed by its network address
+                    policy = network.policy();
+                    address = network.block().network();
+                }
+            }
+        }
+
+        int limit = policy.getQuota().perMinute();
 
-        // Check rate limit using the service
-        RateLimitService.RateLimitResult result = rateLimitService.checkRateLimit(clientKey);
+        // Heavy hitters are short-circuited without creating or updating a bucket
+        Object client;
+        RateLimitService.RateLimitResult result;
+        if (address != null) {
+            client = address;
+            if (heavyHitterDetector.recordAndCheck(address, policy.getCost())) {
+                rejectHeavyHitter(response, client, limit);
+                return;
+            }
+            result = rateLimitService.checkRateLimit(address, policy);
+        } else {
+            String clientKey = policy.getKeyType() == RateLimitKeyType.PRINCIPAL
+                    ? getPrincipalKey(request, clientAddress)
+                    : getClientKey(request, clientAddress);
+            client = clientKey;
+            if (heavyHitterDetector.recordAndCheck(clientKey, policy.getCost())) {
+                rejectHeavyHitter(response, client, limit);
+                return;
+            }
+            result = rateLimitService.checkRateLimit(clientKey, policy);
+        }
 
         if (!result.isAllowed()) {
-            logger.warn("Rate limit exceeded for client: {}", clientKey);
-
-            // Return 429 Too Many Requests with retry information
-            response.setStatus(429);
-            response.setHeader("X-RateLimit-Limit", String.valueOf(MAX_REQUESTS_PER_MINUTE));
-            response.setHeader("X-RateLimit-Remaining", "0");
-            response.setHeader("Retry-After", "60"); // Seconds until reset
-            response.getWriter().write("{\"error\":\"Too many requests. Please try again later.\"}");
-            response.setContentType("application/json");
+            logger.warn("Rate limit exceeded for client: {} (policy: {})", client, policy.getName());
+            reject(response, limit, 60); // Seconds until reset
             return;
         }
 
         // Add rate limit information headers for client tracking
-        response.setHeader("X-RateLimit-Limit", String.valueOf(MAX_REQUESTS_PER_MINUTE));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limit));
         response.setHeader("X-RateLimit-Remaining", String.valueOf(result.getRemainingTokens()));
 
         filterChain.doFilter(request, response);
     }
 
-    private String getClientKey(HttpServletRequest request) {
-        String forwardedFor = request.getHeader("X-Forwarded-For");
-        if (forwardedFor != null && !forwardedFor.isEmpty()) {
-            return forwardedFor.split(",")[0].trim();
+    private void rejectHeavyHitter(HttpServletResponse response, Object client, int limit) throws IOException {
+        logger.debug("Heavy hitter rejected: {}", client);
+        reject(response, limit, heavyHitterDetector.getRetryAfterSeconds());
+    }
+
+    /**
+     * Return 429 Too Many Requests with retry information.
+     */
+    private void reject(HttpServletResponse response, int limit, long retryAfterSeconds) throws IOException {
+        response.setStatus(429);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limit));
+        response.setHeader("X-RateLimit-Remaining", "0");
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.getWriter().write("{\"error\":\"Too many requests. Please try again later.\"}");
+        response.setContentType("application/json");
+    }
+
+    /**
+     * Identify the client by the subject of a valid bearer token.
+     * Anonymous requests and invalid tokens fall back to the client IP.
+     */
+    private String getPrincipalKey(HttpServletRequest request, IpAddress clientAddress) {
+        String headerAuth = request.getHeader("Authorization");
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            try {
+                ParsedToken token = jwtUtils.parseToken(headerAuth.substring(7));
+                // Shared with AuthTokenFilter so the token is only verified once
+                request.setAttribute(ParsedToken.REQUEST_ATTRIBUTE, token);
+                return "user:" + token.subject();
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Rate limiting by IP, bearer token rejected: {}", e.getMessage());
+            }
         }
-        return request.getRemoteAddr();
+        return getClientKey(request, clientAddress);
+    }
+
+    private String getClientKey(HttpServletRequest request, IpAddress clientAddress) {
+        return clientAddress != null ? clientAddress.toString() : request.getRemoteAddr();
     }
 }
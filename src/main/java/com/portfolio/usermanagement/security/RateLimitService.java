@@ -1,111 +1,333 @@
 package com.portfolio.usermanagement.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.portfolio.usermanagement.entity.RateLimitEntry;
 import com.portfolio.usermanagement.repository.RateLimitRepository;
+import com.portfolio.usermanagement.security.ratelimit.IpAddress;
+import com.portfolio.usermanagement.security.ratelimit.OffHeapBucketTable;
+import com.portfolio.usermanagement.security.ratelimit.QuotaLeaseManager;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitMode;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicy;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicyResolver;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitState;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.RateLimitAlgorithm;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Service to handle rate limiting operations with database persistence.
+ * Service to handle rate limiting operations.
+ *
+ * In {@link RateLimitMode#MEMORY} mode (default) per-client state is kept in
+ * memory so the request path never touches JDBC. The decision itself is made
+ * by the configured {@link RateLimitAlgorithm}. Clients whose state changed are
+ * tracked as dirty and flushed to the database in periodic batches
+ * (write-behind); recently active entries are loaded back on startup so
+ * limits survive a restart.
+ *
+ * In {@link RateLimitMode#DATABASE} mode each check is one atomic upsert,
+ * which lets several application nodes share the same limits. That statement
+ * always implements the dual token bucket.
+ *
+ * In {@link RateLimitMode#LEASED} mode the same statement is used to lease
+ * blocks of tokens per client, which are spent locally by
+ * {@link QuotaLeaseManager}.
+ *
+ * State is tracked per policy and client: stored keys have the form
+ * {@code <policy>:<client>}, so each policy has its own independent limit.
+ * The heap map is a bounded cache: an entry expires once it has been idle for
+ * the policy window, after which its state would be back to full anyway, and
+ * the cache never holds more than {@code app.rate-limit.max-entries} clients.
+ * Entries evicted with unflushed changes are kept until the next flush writes
+ * them.
+ *
+ * With {@code app.rate-limit.off-heap.enabled} in memory mode, IP-keyed
+ * state is kept in an {@link OffHeapBucketTable} keyed by the 128-bit
+ * address instead, so a wide botnet costs no heap. That state is not
+ * persisted; principal keys still use the heap map and write-behind.
  */
 @Service
 public class RateLimitService {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitService.class);
 
-    private static final int MAX_REQUESTS_PER_MINUTE = 60;
-    private static final int MAX_REQUESTS_PER_HOUR = 1000;
     private static final Duration STALE_ENTRY_THRESHOLD = Duration.ofHours(24);
+    private static final Duration WARMUP_WINDOW = Duration.ofHours(1);
 
     private final RateLimitRepository rateLimitRepository;
+    private final RateLimitAlgorithm algorithm;
+    private final RateLimitPolicyResolver policyResolver;
+    private final QuotaLeaseManager leaseManager;
 
-    public RateLimitService(RateLimitRepository rateLimitRepository) {
+    private final Cache<String, RateLimitState> buckets;
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private final Map<String, RateLimitState> evictedDirty = new ConcurrentHashMap<>();
+
+    @Value("${app.rate-limit.mode:memory}")
+    private RateLimitMode mode;
+
+    /**
+     * Maximum number of entries written per repository batch during a flush.
+     */
+    @Value("${app.rate-limit.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${app.rate-limit.off-heap.enabled:false}")
+    private boolean offHeapEnabled;
+
+    /**
+     * Number of client slots in the off-heap table.
+     */
+    @Value("${app.rate-limit.off-heap.capacity:262144}")
+    private int offHeapCapacity;
+
+    @Value("${app.rate-limit.off-heap.lock-stripes:1024}")
+    private int offHeapLockStripes;
+
+    private OffHeapBucketTable offHeapTable;
+
+    public RateLimitService(RateLimitRepository rateLimitRepository,
+                            RateLimitAlgorithm algorithm,
+                            RateLimitPolicyResolver policyResolver,
+                            QuotaLeaseManager leaseManager,
+                            @Value("${app.rate-limit.max-entries:100000}") long maxEntries,
+                            @Value("${app.rate-limit.idle-expiry-minutes:60}") long idleExpiryMinutes) {
         this.rateLimitRepository = rateLimitRepository;
+        this.algorithm = algorithm;
+        this.policyResolver = policyResolver;
+        this.leaseManager = leaseManager;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofMinutes(idleExpiryMinutes))
+                .evictionListener(this::onEviction)
+                .build();
+    }
+
+    /**
+     * Called atomically with the eviction, so the next flush still finds an
+     * entry whose changes were not written yet.
+     */
+    private void onEviction(String key, RateLimitState state, RemovalCause cause) {
+        if (key != null && state != null && state.isModified()) {
+            evictedDirty.put(key, state);
+        }
+    }
+
+    @PostConstruct
+    public void createOffHeapTable() {
+        if (offHeapEnabled && mode == RateLimitMode.MEMORY) {
+            offHeapTable = new OffHeapBucketTable(algorithm, offHeapCapacity, offHeapLockStripes);
+            logger.info("Off-heap rate limit table: {} slots, {} bytes",
+                    offHeapTable.capacity(), offHeapTable.sizeInBytes());
+        }
+    }
+
+    /**
+     * Process a rate limit check for a client identified by IP address.
+     * Uses the off-heap table when enabled, the string-keyed path otherwise.
+     *
+     * @param address the client address
+     * @param policy  the policy that applies to the request
+     * @return RateLimitResult indicating if request is allowed and remaining tokens
+     */
+    public RateLimitResult checkRateLimit(IpAddress address, RateLimitPolicy policy) {
+        if (offHeapTable == null) {
+            return checkRateLimit(address.toString(), policy);
+        }
+
+        int remaining = offHeapTable.tryAcquire(address.high(), address.low(), policy.getId(),
+                policy.getQuota(), policy.getCost(), System.currentTimeMillis());
+        return remaining < 0 ? new RateLimitResult(false, 0) : new RateLimitResult(true, remaining);
     }
 
     /**
      * Process a rate limit check and update for a client.
      *
-     * @param clientKey the client identifier (IP address)
+     * @param clientKey the client identifier (IP address or principal)
+     * @param policy    the policy that applies to the request
      * @return RateLimitResult indicating if request is allowed and remaining tokens
      */
-    @Transactional
-    public RateLimitResult checkRateLimit(String clientKey) {
-        // Get or create rate limit entry for this client
-        RateLimitEntry entry = rateLimitRepository.findByClientKey(clientKey)
-                .orElse(createNewRateLimitEntry(clientKey));
+    public RateLimitResult checkRateLimit(String clientKey, RateLimitPolicy policy) {
+        String key = policy.getName() + ":" + clientKey;
+        if (mode == RateLimitMode.DATABASE) {
+            return checkRateLimitInDatabase(key, policy);
+        }
+        if (mode == RateLimitMode.LEASED) {
+            int remaining = leaseManager.consume(key, policy.getQuota(), policy.getCost());
+            return new RateLimitResult(remaining >= 0, Math.max(remaining, 0));
+        }
 
-        // Refill tokens based on time elapsed
-        refillTokens(entry);
+        long now = System.currentTimeMillis();
+        RateLimitState bucket = buckets.get(key,
+                k -> RateLimitState.initial(algorithm, policy.getQuota(), now));
 
-        // Try to consume a token
-        boolean allowed = tryConsume(entry);
+        int remaining = bucket.tryAcquire(algorithm, policy.getCost(), now);
+        if (remaining < 0) {
+            return new RateLimitResult(false, 0);
+        }
 
-        if (allowed) {
-            // Save updated entry
-            entry.setLastAccessTime(Instant.now());
-            rateLimitRepository.save(entry);
+        dirtyKeys.add(key);
+        // The size cap may have evicted the entry before this request modified it
+        if (buckets.getIfPresent(key) != bucket) {
+            evictedDirty.putIfAbsent(key, bucket);
         }
+        return new RateLimitResult(true, remaining);
+    }
+
+    /**
+     * Refill, consume and read back the remaining tokens in one statement.
+     * Runs without a surrounding transaction: the upsert is atomic on its own,
+     * so the check costs a single round trip and concurrent first requests from
+     * the same client cannot race on the unique client_key constraint.
+     */
+    private RateLimitResult checkRateLimitInDatabase(String key, RateLimitPolicy policy) {
+        Instant now = Instant.now();
+        Optional<Integer> remaining = rateLimitRepository.consumeTokens(
+                key,
+                policy.getCost(),
+                policy.getQuota().perMinute(),
+                policy.getQuota().perHour(),
+                now,
+                now.minus(Duration.ofMinutes(1)),
+                now.minus(Duration.ofHours(1)));
 
-        return new RateLimitResult(allowed, getRemainingTokens(entry));
+        return remaining
+                .map(tokens -> new RateLimitResult(true, tokens))
+                .orElseGet(() -> new RateLimitResult(false, 0));
     }
 
-    private RateLimitEntry createNewRateLimitEntry(String clientKey) {
-        RateLimitEntry entry = new RateLimitEntry();
-        entry.setClientKey(clientKey);
-        entry.setTokens(MAX_REQUESTS_PER_MINUTE);
-        entry.setLastRefillTime(Instant.now());
-        entry.setHourlyTokens(MAX_REQUESTS_PER_HOUR);
-        entry.setHourlyRefillTime(Instant.now());
-        entry.setLastAccessTime(Instant.now());
-        return entry;
+    /**
+     * Flush changed buckets to the database.
+     * Runs on a fixed delay so at most one flush is in progress at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.flush-interval-ms:5000}")
+    @Transactional
+    public void flushDirtyBuckets() {
+        dirtyKeys.addAll(evictedDirty.keySet());
+        if (dirtyKeys.isEmpty()) {
+            return;
+        }
+
+        List<String> batch = new ArrayList<>(flushBatchSize);
+        int flushed = 0;
+        Iterator<String> iterator = dirtyKeys.iterator();
+        while (iterator.hasNext()) {
+            // Remove before snapshotting: a concurrent update re-marks the key for the next flush
+            String clientKey = iterator.next();
+            iterator.remove();
+            batch.add(clientKey);
+
+            if (batch.size() >= flushBatchSize) {
+                flushed += writeBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushed += writeBatch(batch);
+        }
+
+        logger.debug("Flushed {} rate limit entries", flushed);
     }
 
-    private void refillTokens(RateLimitEntry entry) {
-        Instant now = Instant.now();
+    private int writeBatch(List<String> clientKeys) {
+        Map<String, RateLimitEntry> existing = new HashMap<>();
+        for (RateLimitEntry entry : rateLimitRepository.findByClientKeyIn(clientKeys)) {
+            existing.put(entry.getClientKey(), entry);
+        }
 
-        // Refill per-minute tokens: restore full capacity for each minute passed
-        long minutesPassed = Duration.between(entry.getLastRefillTime(), now).toMinutes();
-        if (minutesPassed > 0) {
-            int newTokens = Math.min(MAX_REQUESTS_PER_MINUTE,
-                    entry.getTokens() + (int) minutesPassed * MAX_REQUESTS_PER_MINUTE);
-            entry.setTokens(newTokens);
-            entry.setLastRefillTime(now);
+        long now = System.currentTimeMillis();
+        List<RateLimitEntry> toSave = new ArrayList<>(clientKeys.size());
+        for (String clientKey : clientKeys) {
+            // A live entry is newer than one evicted before it was recreated
+            RateLimitState bucket = buckets.getIfPresent(clientKey);
+            RateLimitState evicted = evictedDirty.remove(clientKey);
+            if (bucket == null) {
+                bucket = evicted;
+            }
+            if (bucket == null) {
+                continue;
+            }
+            RateLimitEntry entry = existing.get(clientKey);
+            if (entry == null) {
+                entry = new RateLimitEntry();
+                entry.setClientKey(clientKey);
+            }
+            bucket.copyTo(algorithm, now, entry);
+            toSave.add(entry);
         }
 
-        // Refill hourly tokens: same logic but on hourly basis
-        long hoursPassed = Duration.between(entry.getHourlyRefillTime(), now).toHours();
-        if (hoursPassed > 0) {
-            int newHourlyTokens = Math.min(MAX_REQUESTS_PER_HOUR,
-                    entry.getHourlyTokens() + (int) hoursPassed * MAX_REQUESTS_PER_HOUR);
-            entry.setHourlyTokens(newHourlyTokens);
-            entry.setHourlyRefillTime(now);
+        rateLimitRepository.saveAll(toSave);
+        return toSave.size();
+    }
+
+    /**
+     * Flush pending changes before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flushDirtyBuckets();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush rate limit entries on shutdown: {}", e.getMessage());
         }
     }
 
-    private boolean tryConsume(RateLimitEntry entry) {
-        if (entry.getTokens() > 0 && entry.getHourlyTokens() > 0) {
-            entry.setTokens(entry.getTokens() - 1);
-            entry.setHourlyTokens(entry.getHourlyTokens() - 1);
-            return true;
+    /**
+     * Load recently active entries into memory once the application is ready,
+     * so clients cannot reset their limits by waiting for a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecentEntries() {
+        if (mode != RateLimitMode.MEMORY) {
+            return;
+        }
+
+        Instant since = Instant.now().minus(WARMUP_WINDOW);
+        int loaded = 0;
+        for (RateLimitEntry entry : rateLimitRepository.findByLastAccessTimeAfter(since)) {
+            RateLimitPolicy policy = findPolicy(entry.getClientKey());
+            if (policy == null) {
+                // Policy was removed or renamed since the entry was written
+                continue;
+            }
+            RateLimitState state = RateLimitState.fromEntry(algorithm, policy.getQuota(), entry);
+            if (buckets.asMap().putIfAbsent(entry.getClientKey(), state) == null) {
+                loaded++;
+            }
         }
-        return false;
+        logger.info("Loaded {} rate limit entries into memory", loaded);
     }
 
-    private int getRemainingTokens(RateLimitEntry entry) {
-        return Math.min(entry.getTokens(), entry.getHourlyTokens());
+    private RateLimitPolicy findPolicy(String key) {
+        int separator = key.indexOf(':');
+        return separator > 0 ? policyResolver.findByName(key.substring(0, separator)) : null;
     }
 
     /**
      * Cleanup stale rate limit entries every hour.
      * Prevents database from growing indefinitely by removing entries
-     * that haven't been accessed in 24 hours.
+     * that haven't been accessed in 24 hours. In-memory buckets expire on
+     * their own.
      */
     @Scheduled(fixedRate = 3600000) // Every hour (in milliseconds)
     @Transactional
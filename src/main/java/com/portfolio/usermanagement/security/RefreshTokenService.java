@@ -17,7 +17,6 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * Service for managing refresh tokens.
@@ -50,8 +49,9 @@ public class RefreshTokenService {
 
     /**
      * Create a new refresh token for a user.
+     * Costs one UPDATE enforcing the per-user limit and the INSERT.
      *
-     * @param user the user
+     * @param user the user; only its id is read, so a reference will do
      * @param ipAddress the IP address from which the token is created
      * @return the created RefreshToken
      */
@@ -59,8 +59,25 @@ public class RefreshTokenService {
         // Clean up old tokens if user has too many
         cleanupExcessTokensForUser(user);
 
+        return issueRefreshToken(user, ipAddress);
+    }
+
+    /**
+     * Create the first refresh token of a user created in the current
+     * transaction, skipping the per-user token limit: there is nothing to
+     * count or clean up yet.
+     *
+     * @param user the newly created user
+     * @param ipAddress the IP address from which the token is created
+     * @return the created RefreshToken
+     */
+    public RefreshToken createInitialRefreshToken(User user, String ipAddress) {
+        return issueRefreshToken(user, ipAddress);
+    }
+
+    private RefreshToken issueRefreshToken(User user, String ipAddress) {
         // Generate unique token
-        String token = UUID.randomUUID().toString();
+        String token = SecureIdGenerator.refreshToken();
 
         // Create refresh token entity
         RefreshToken refreshToken = RefreshToken.builder()
@@ -72,7 +89,7 @@ public class RefreshTokenService {
                 .build();
 
         refreshToken = refreshTokenRepository.save(refreshToken);
-        logger.debug("Created refresh token for user: {}", user.getUsername());
+        logger.debug("Created refresh token for user: {}", user.getId());
 
         return refreshToken;
     }
@@ -179,29 +196,18 @@ public class RefreshTokenService {
 
     /**
      * Clean up excess tokens for a user to prevent accumulation.
-     * Keeps only the most recent tokens up to maxTokensPerUser.
+     * Revokes all but the newest maxTokensPerUser - 1 valid tokens, leaving
+     * room for the one being created, in a single UPDATE. Only the user's id
+     * is used, so a reference to the user is enough.
      *
      * @param user the user
      */
     private void cleanupExcessTokensForUser(User user) {
-        long activeTokenCount = refreshTokenRepository.countValidTokensByUser(user, Instant.now());
-
-        if (activeTokenCount >= maxTokensPerUser) {
-            // Get all valid tokens, sorted by creation date (oldest first)
-            List<RefreshToken> validTokens = refreshTokenRepository.findValidTokensByUser(user, Instant.now());
-
-            // Calculate how many to remove
-            int tokensToRemove = (int) (activeTokenCount - maxTokensPerUser + 1);
-
-            // Revoke oldest tokens
-            validTokens.stream()
-                    .limit(tokensToRemove)
-                    .forEach(token -> {
-                        token.revoke();
-                        refreshTokenRepository.save(token);
-                    });
+        int revoked = refreshTokenRepository.revokeValidTokensExceptNewest(
+                user.getId(), Instant.now(), Math.max(0, maxTokensPerUser - 1));
 
-            logger.info("Cleaned up {} excess tokens for user: {}", tokensToRemove, user.getUsername());
+        if (revoked > 0) {
+            logger.info("Cleaned up {} excess tokens for user: {}", revoked, user.getId());
         }
     }
 
@@ -0,0 +1,105 @@
+package com.portfolio.usermanagement.security;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Unpredictable identifiers for tokens, generated without a shared lock.
+ *
+ * {@link UUID#randomUUID()} draws from one static {@link SecureRandom}, and
+ * the default Linux provider serializes every call on a global lock, so
+ * concurrent logins queue on the entropy source. Here each thread owns a
+ * DRBG seeded once from the system, and draws from it in blocks to amortize
+ * the per-call cost; identifiers are sliced off that buffer and encoded as
+ * unpadded base64url.
+ */
+public final class SecureIdGenerator {
+
+    /**
+     * 128 bits: as unguessable as a random UUID (122 bits), in 22 characters.
+     */
+    public static final int JTI_BYTES = 16;
+
+    /**
+     * 256 bits for long-lived bearer secrets, in 43 characters.
+     */
+    public static final int REFRESH_TOKEN_BYTES = 32;
+
+    private static final int BUFFER_SIZE = 512;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ThreadLocal<RandomBuffer> BUFFERS = ThreadLocal.withInitial(RandomBuffer::new);
+
+    private SecureIdGenerator() {
+    }
+
+    /**
+     * Random identifier of {@code byteCount} bytes, base64url-encoded without padding.
+     */
+    public static String generate(int byteCount) {
+        byte[] bytes = new byte[byteCount];
+        BUFFERS.get().nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    public static String jti() {
+        return generate(JTI_BYTES);
+    }
+
+    public static String refreshToken() {
+        return generate(REFRESH_TOKEN_BYTES);
+    }
+
+    /**
+     * Random (version 4) UUID from the same per-thread source.
+     */
+    public static UUID uuid() {
+        byte[] bytes = new byte[16];
+        BUFFERS.get().nextBytes(bytes);
+        bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x40);
+        bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80);
+        long most = 0;
+        long least = 0;
+        for (int i = 0; i < 8; i++) {
+            most = (most << 8) | (bytes[i] & 0xff);
+            least = (least << 8) | (bytes[i + 8] & 0xff);
+        }
+        return new UUID(most, least);
+    }
+
+    /**
+     * Thread-confined DRBG output; every byte is handed out once and then zeroed.
+     */
+    private static final class RandomBuffer {
+
+        private final SecureRandom random;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+
+        RandomBuffer() {
+            SecureRandom drbg;
+            try {
+                drbg = SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                drbg = new SecureRandom();
+            }
+            this.random = drbg;
+        }
+
+        void nextBytes(byte[] out) {
+            if (out.length > BUFFER_SIZE) {
+                random.nextBytes(out);
+                return;
+            }
+            if (BUFFER_SIZE - position < out.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            System.arraycopy(buffer, position, out, 0, out.length);
+            Arrays.fill(buffer, position, position + out.length, (byte) 0);
+            position += out.length;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.portfolio.usermanagement.security;
+
+/**
+ * Published when anything captured in a user's {@code UserDetails} may have
+ * changed: profile updates, deletion, role assignments and lock transitions.
+ * Listeners run after the surrounding transaction commits, so the next load
+ * sees the new state.
+ *
+ * @param username the affected user
+ */
+public record UserDetailsChangedEvent(String username) {
+}
@@ -1,43 +1,94 @@
 package com.portfolio.usermanagement.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.portfolio.usermanagement.entity.User;
+import com.portfolio.usermanagement.monitoring.MetricsService;
 import com.portfolio.usermanagement.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.time.Duration;
 
+/**
+ * Loads users for authentication through a bounded in-memory cache.
+ *
+ * Entries live for at most {@code app.security.user-cache.ttl-ms} and are
+ * evicted as soon as a {@link UserDetailsChangedEvent} commits, so permission
+ * and status changes apply within that bound even if an event is missed.
+ * Principals are {@link AccountDetails}, which also carry the user's id and
+ * profile. Callers always receive a copy: authentication erases the password
+ * of the principal it is given, which must not reach the cached instance.
+ *
+ * Also stores rehashed passwords when the password encoder reports that a
+ * hash uses an outdated algorithm or cost.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
-    @Autowired
-    private UserRepository userRepository;
+    private final UserRepository userRepository;
+    private final boolean cacheEnabled;
+    private final Cache<String, AccountDetails> cache;
 
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  MetricsService metricsService,
+                                  @Value("${app.security.user-cache.enabled:true}") boolean cacheEnabled,
+                                  @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+                                  @Value("${app.security.user-cache.ttl-ms:60000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.cacheEnabled = cacheEnabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        if (cacheEnabled) {
+            metricsService.monitorCache("users.details", cache);
+        }
+    }
+
+    /**
+     * Not transactional: a cache hit must not borrow a connection, and roles
+     * are fetched eagerly with the user.
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        if (!cacheEnabled) {
+            return load(username);
+        }
+        return cache.get(username, this::load).copy();
+    }
 
-        Set<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
-                .collect(Collectors.toSet());
-
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(authorities)
-                .accountExpired(!user.getAccountNonExpired())
-                .accountLocked(!user.getAccountNonLocked())
-                .credentialsExpired(!user.getCredentialsNonExpired())
-                .disabled(!user.getEnabled())
+    /**
+     * Called after a successful login whose stored hash needs upgrading.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        cache.invalidate(user.getUsername());
+        if (user instanceof AccountDetails account) {
+            return account.withPassword(newPassword);
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
                 .build();
     }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDetailsChanged(UserDetailsChangedEvent event) {
+        cache.invalidate(event.username());
+    }
+
+    private AccountDetails load(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return AccountDetails.from(user);
+    }
 }
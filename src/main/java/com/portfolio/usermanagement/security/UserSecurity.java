@@ -2,6 +2,7 @@ package com.portfolio.usermanagement.security;
 
 import com.portfolio.usermanagement.entity.User;
 import com.portfolio.usermanagement.repository.UserRepository;
+import com.portfolio.usermanagement.security.jwt.TokenUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -19,6 +20,11 @@ public class UserSecurity {
             return false;
         }
 
+        // Stateless tokens already carry the user id
+        if (authentication.getPrincipal() instanceof TokenUserDetails principal && principal.getId() != null) {
+            return principal.getId().equals(userId);
+        }
+
         String username = authentication.getName();
         User user = userRepository.findByUsername(username).orElse(null);
 
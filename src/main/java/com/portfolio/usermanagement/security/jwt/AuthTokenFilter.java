@@ -37,6 +37,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private TokenEpochService tokenEpochService;
+
     /**
      * Filters each request to validate JWT tokens and set up authentication.
      * Runs once per request to authenticate users based on their JWT token.
@@ -53,9 +56,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         try {
             // Extract JWT from Authorization header
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+            if (jwt != null) {
+                // Verify once; the rate limit filter may already have done it
+                ParsedToken token = getParsedToken(request, jwt);
+
                 // Check if token has been blacklisted (logged out)
-                String jti = jwtUtils.getJtiFromToken(jwt);
+                String jti = token.jti();
                 if (tokenBlacklistService.isBlacklisted(jti)) {
                     logger.warn("Attempted to use blacklisted token (JTI: {})", jti);
                     // Continue without authentication - token is invalid
@@ -63,9 +69,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                // Load user details and set up authentication
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Check if all of the user's sessions were revoked after this token was issued
+                if (tokenEpochService.isRevoked(token)) {
+                    logger.warn("Attempted to use revoked token (JTI: {})", jti);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+
+                // Stateless tokens carry their authorities; older tokens load the user
+                String username = token.subject();
+                UserDetails userDetails = jwtUtils.isStatelessEnabled() && token.hasAuthorities()
+                        ? TokenUserDetails.fromToken(token)
+                        : userDetailsService.loadUserByUsername(username);
 
                 // Create authentication object and add to security context
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -97,6 +112,11 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private ParsedToken getParsedToken(HttpServletRequest request, String jwt) {
+        Object parsed = request.getAttribute(ParsedToken.REQUEST_ATTRIBUTE);
+        return parsed instanceof ParsedToken token ? token : jwtUtils.parseToken(jwt);
+    }
+
     /**
      * Extracts JWT token from Authorization header.
      * Expected format: "Bearer <token>"
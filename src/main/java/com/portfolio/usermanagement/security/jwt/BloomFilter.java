@@ -0,0 +1,95 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size Bloom filter over strings.
+ *
+ * {@link #mightContain(String)} never returns false for an added key; for
+ * other keys it returns true with roughly the configured false positive
+ * probability while no more than the expected number of keys were added.
+ * Bit positions are derived by double hashing from one seeded 64-bit hash,
+ * so a lookup costs a single pass over the key plus k word reads. Updates
+ * are lock-free. Keys cannot be removed: the filter is rebuilt instead.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final long seed;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions number of keys the filter is sized for
+     * @param falsePositiveRate  target false positive probability (0-1, exclusive)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / expectedInsertions * ln2)));
+        this.expectedInsertions = expectedInsertions;
+        this.seed = new SecureRandom().nextLong();
+    }
+
+    public void add(String key) {
+        long combined = hash(key);
+        long step = Long.rotateLeft(combined, 32) | 1;
+        for (int i = 0; i < hashCount; i++, combined += step) {
+            long bit = Math.floorMod(combined, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.accumulateAndGet(word, mask, (current, set) -> current | set);
+            }
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String key) {
+        long combined = hash(key);
+        long step = Long.rotateLeft(combined, 32) | 1;
+        for (int i = 0; i < hashCount; i++, combined += step) {
+            long bit = Math.floorMod(combined, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether more keys were added than the filter was sized for, so its
+     * false positive rate is above target and it should be rebuilt larger.
+     */
+    public boolean isSaturated() {
+        return insertions.sum() > expectedInsertions;
+    }
+
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    private long hash(String key) {
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        // MurmurHash3 finalizer
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -1,17 +1,23 @@
 package com.portfolio.usermanagement.security.jwt;
 
+import com.portfolio.usermanagement.security.SecureIdGenerator;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.UUID;
 
@@ -27,9 +33,34 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
+    /**
+     * Embed authorities, user id and account status so requests authenticate without a database lookup.
+     */
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
+    /**
+     * Built once from the secret; both are immutable and thread-safe.
+     */
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * Skips verification of tokens seen before; absent outside the application context.
+     */
+    @Autowired(required = false)
+    private VerifiedTokenCache verifiedTokenCache;
+
+    /**
+     * ES256/EdDSA keys when {@code jwt.signing.algorithm} is asymmetric; absent outside the application context.
+     */
+    @Autowired(required = false)
+    private SigningKeyRing signingKeyRing;
+
     /**
      * Validates JWT secret on application startup.
      * Ensures the secret is long enough to be secure (64+ characters).
+     * Also builds the signing key and parser shared by all requests.
      */
     @PostConstruct
     public void validateSecret() {
@@ -38,6 +69,10 @@ public class JwtUtils {
                 "JWT secret must be at least " + MINIMUM_SECRET_LENGTH + " characters long"
             );
         }
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = isKeyRingEnabled()
+                ? Jwts.parser().keyLocator(this::locateVerificationKey).build()
+                : Jwts.parser().verifyWith(signingKey).build();
         logger.info("JWT configuration validated successfully");
     }
 
@@ -49,17 +84,130 @@ public class JwtUtils {
      * - audience: Intended recipients
      */
     public String generateJwtToken(Authentication authentication) {
+        return generateJwtToken(authentication, null);
+    }
+
+    /**
+     * Generates a JWT token; in stateless mode it also carries the user's
+     * authorities, id and account status flags (see {@link TokenUserDetails}).
+     *
+     * Those claims are fixed until the token expires: role or status changes
+     * only reach existing tokens through revocation, so stateless mode should
+     * be paired with a short {@code jwt.expiration}.
+     *
+     * @param authentication authenticated principal
+     * @param userId         the user's id, or null to omit it
+     */
+    public String generateJwtToken(Authentication authentication, UUID userId) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return Jwts.builder()
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
                 .subject(userPrincipal.getUsername())
-                .claim("jti", UUID.randomUUID().toString()) // Unique token ID for blacklisting
+                .claim("jti", SecureIdGenerator.jti()) // Unique token ID for blacklisting
                 .claim("type", "access")
                 .issuer("user-management-system")
                 .audience().add("api").and()
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
-                .compact();
+                .issuedAt(new Date(now))
+                .claim(ParsedToken.CLAIM_ISSUED_AT_MS, now) // Compared with revocation epochs
+                .expiration(new Date(now + jwtExpirationMs));
+
+        if (statelessEnabled) {
+            builder.claim(ParsedToken.CLAIM_ROLES, userPrincipal.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .sorted()
+                            .toList())
+                    .claim(ParsedToken.CLAIM_ENABLED, userPrincipal.isEnabled())
+                    .claim(ParsedToken.CLAIM_ACCOUNT_NON_EXPIRED, userPrincipal.isAccountNonExpired())
+                    .claim(ParsedToken.CLAIM_CREDENTIALS_NON_EXPIRED, userPrincipal.isCredentialsNonExpired())
+                    .claim(ParsedToken.CLAIM_ACCOUNT_NON_LOCKED, userPrincipal.isAccountNonLocked());
+            if (userId != null) {
+                builder.claim(ParsedToken.CLAIM_USER_ID, userId.toString());
+            }
+        }
+        if (isKeyRingEnabled()) {
+            SigningKeyRing.ActiveKey key = signingKeyRing.activeKey();
+            return builder.header().keyId(key.kid()).and()
+                    .signWith(key.privateKey())
+                    .compact();
+        }
+        return builder.signWith(signingKey).compact();
+    }
+
+    private boolean isKeyRingEnabled() {
+        return signingKeyRing != null && signingKeyRing.isEnabled();
+    }
+
+    /**
+     * Key ring tokens carry a kid; tokens without one are signed with the
+     * shared secret, and {@link #checkSharedSecretToken} limits them to the
+     * transition after switching algorithms. The parser rejects any key that
+     * does not match the token's alg header.
+     */
+    private Key locateVerificationKey(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (kid == null) {
+            return signingKey;
+        }
+        Key key = signingKeyRing.verificationKey(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT signing key: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Tokens signed with the shared secret are only accepted if they expire
+     * within one token lifetime of the key ring's activation, which every
+     * token issued before the switch does. Anyone still holding the secret
+     * can therefore not mint tokens that outlive the transition, and once it
+     * has passed no such token is accepted at all.
+     */
+    private void checkSharedSecretToken(Claims claims) {
+        Instant activatedAt = signingKeyRing.activatedAt();
+        Date expiration = claims.getExpiration();
+        if (activatedAt == null || expiration == null
+                || expiration.toInstant().isAfter(activatedAt.plusMillis(jwtExpirationMs))) {
+            throw new SignatureException("JWT signed with the shared secret after the key ring transition");
+        }
+    }
+
+    /**
+     * Whether access tokens are issued with authority claims.
+     */
+    public boolean isStatelessEnabled() {
+        return statelessEnabled;
+    }
+
+    /**
+     * Verifies the signature and decodes the token once.
+     * Callers should read everything they need from the returned token instead
+     * of calling the single-claim getters below, which each parse again.
+     *
+     * Tokens verified before are served from the {@link VerifiedTokenCache}
+     * until they expire; revocation must still be checked by the caller.
+     *
+     * @param token the compact JWT
+     * @return the verified token
+     * @throws JwtException             if the token is invalid, expired or tampered with
+     * @throws IllegalArgumentException if the token is null or empty
+     */
+    public ParsedToken parseToken(String token) {
+        if (verifiedTokenCache != null && token != null) {
+            ParsedToken cached = verifiedTokenCache.get(token);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+        if (isKeyRingEnabled() && jws.getHeader().getKeyId() == null) {
+            checkSharedSecretToken(jws.getPayload());
+        }
+        ParsedToken parsed = new ParsedToken(jws.getPayload());
+        if (verifiedTokenCache != null) {
+            verifiedTokenCache.put(token, parsed);
+        }
+        return parsed;
     }
 
     /**
@@ -67,21 +215,11 @@ public class JwtUtils {
      * Used for blacklist checking during logout.
      */
     public String getJtiFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("jti", String.class);
+        return parseToken(token).jti();
     }
 
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseToken(token).subject();
     }
 
     /**
@@ -92,34 +230,6 @@ public class JwtUtils {
      * @return milliseconds until token expires
      */
     public long getExpirationMs(String token) {
-        Date expiration = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
-
-        long expirationMs = expiration.getTime() - System.currentTimeMillis();
-        return Math.max(0, expirationMs); // Return 0 if already expired
-    }
-
-    public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
-    }
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return parseToken(token).remainingMs();
     }
 }
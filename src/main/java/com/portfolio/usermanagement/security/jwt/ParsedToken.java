@@ -0,0 +1,112 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A JWT whose signature has been verified, with its claims decoded once.
+ * Obtained from {@link JwtUtils#parseToken(String)}.
+ */
+public class ParsedToken {
+
+    /**
+     * Request attribute holding the token once a filter has verified the
+     * bearer token, so later filters do not parse it again.
+     */
+    public static final String REQUEST_ATTRIBUTE = ParsedToken.class.getName();
+
+    /**
+     * Claims embedded in stateless access tokens.
+     */
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ENABLED = "enabled";
+    static final String CLAIM_ACCOUNT_NON_EXPIRED = "account_non_expired";
+    static final String CLAIM_CREDENTIALS_NON_EXPIRED = "credentials_non_expired";
+    static final String CLAIM_ACCOUNT_NON_LOCKED = "account_non_locked";
+
+    /**
+     * Issue time in milliseconds; iat only has one-second resolution.
+     */
+    static final String CLAIM_ISSUED_AT_MS = "iat_ms";
+
+    private final Claims claims;
+
+    ParsedToken(Claims claims) {
+        this.claims = claims;
+    }
+
+    public String subject() {
+        return claims.getSubject();
+    }
+
+    /**
+     * JWT ID used for blacklisting.
+     */
+    public String jti() {
+        return claims.get("jti", String.class);
+    }
+
+    public Date issuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    /**
+     * Issue time in epoch milliseconds, or null if the token was issued without it.
+     */
+    public Long issuedAtMs() {
+        return claims.get(CLAIM_ISSUED_AT_MS, Long.class);
+    }
+
+    public Date expiration() {
+        return claims.getExpiration();
+    }
+
+    /**
+     * Milliseconds until the token expires, 0 if it already has.
+     */
+    public long remainingMs() {
+        return Math.max(0, expiration().getTime() - System.currentTimeMillis());
+    }
+
+    /**
+     * Authority names, or null if the token was issued without them.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> roles() {
+        return claims.get(CLAIM_ROLES, List.class);
+    }
+
+    public boolean hasAuthorities() {
+        return claims.containsKey(CLAIM_ROLES);
+    }
+
+    /**
+     * User id, or null if the token was issued without it.
+     */
+    public UUID userId() {
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        return userId != null ? UUID.fromString(userId) : null;
+    }
+
+    /**
+     * Account status flag; absent flags count as false.
+     */
+    boolean flag(String name) {
+        return Boolean.TRUE.equals(claims.get(name, Boolean.class));
+    }
+
+    /**
+     * Custom claim converted to the requested type, or null if absent.
+     */
+    public <T> T claim(String name, Class<T> type) {
+        return claims.get(name, type);
+    }
+
+    public Claims claims() {
+        return claims;
+    }
+}
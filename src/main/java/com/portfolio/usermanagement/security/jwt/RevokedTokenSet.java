@@ -0,0 +1,60 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact in-memory set of revoked JTIs, each dropped once its token expires.
+ *
+ * Lookups are a lock-free hash probe. Expiry is driven by a
+ * {@link TimingWheel}, so removing expired entries costs O(1) per entry
+ * instead of a scan; the wheel is only touched under its own lock when
+ * entries are added or the clock advances.
+ */
+public class RevokedTokenSet {
+
+    private final ConcurrentHashMap<String, Boolean> jtis = new ConcurrentHashMap<>();
+    private final TimingWheel<String> expiries;
+
+    /**
+     * @param tickMs expiry resolution
+     * @param nowMs  current time
+     */
+    public RevokedTokenSet(long tickMs, long nowMs) {
+        this.expiries = new TimingWheel<>(tickMs, nowMs);
+    }
+
+    public boolean contains(String jti) {
+        return jtis.containsKey(jti);
+    }
+
+    /**
+     * Add a JTI until {@code expiryMs}; JTIs that have already expired are ignored.
+     */
+    public void add(String jti, long expiryMs) {
+        if (jtis.putIfAbsent(jti, Boolean.TRUE) != null) {
+            return;
+        }
+        boolean scheduled;
+        synchronized (expiries) {
+            scheduled = expiries.schedule(jti, expiryMs);
+        }
+        if (!scheduled) {
+            jtis.remove(jti);
+        }
+    }
+
+    /**
+     * Drop every JTI whose token has expired by {@code nowMs}.
+     *
+     * @return number of dropped JTIs
+     */
+    public int expire(long nowMs) {
+        synchronized (expiries) {
+            return expiries.advance(nowMs, jtis::remove);
+        }
+    }
+
+    public int size() {
+        return jtis.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+
+import java.security.KeyPair;
+import java.util.Locale;
+
+/**
+ * Access token signing algorithm, set by {@code jwt.signing.algorithm}.
+ */
+public enum SigningAlgorithm {
+
+    /**
+     * HMAC with the shared {@code jwt.secret}; tokens can only be verified by this service.
+     */
+    HS512("HS512", null),
+
+    /**
+     * ECDSA on P-256 from the key ring.
+     */
+    ES256("ES256", "EC"),
+
+    /**
+     * Ed25519 from the key ring.
+     */
+    EDDSA("EdDSA", "Ed25519");
+
+    private final String jwaName;
+    private final String keyFactoryAlgorithm;
+
+    SigningAlgorithm(String jwaName, String keyFactoryAlgorithm) {
+        this.jwaName = jwaName;
+        this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+    }
+
+    /**
+     * Parse a configured name case-insensitively, e.g. {@code EdDSA}.
+     *
+     * @throws IllegalArgumentException if the name is not supported
+     */
+    public static SigningAlgorithm fromName(String name) {
+        for (SigningAlgorithm algorithm : values()) {
+            if (algorithm.jwaName.equalsIgnoreCase(name.trim())) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported JWT signing algorithm: " + name);
+    }
+
+    public boolean isAsymmetric() {
+        return keyFactoryAlgorithm != null;
+    }
+
+    /**
+     * JWA name used in the JWT alg header and the JWK alg member.
+     */
+    public String jwaName() {
+        return jwaName;
+    }
+
+    String keyFactoryAlgorithm() {
+        return keyFactoryAlgorithm;
+    }
+
+    KeyPair generateKeyPair() {
+        return switch (this) {
+            case ES256 -> Jwts.SIG.ES256.keyPair().build();
+            case EDDSA -> Jwks.CRV.Ed25519.keyPair().build();
+            case HS512 -> throw new IllegalStateException("HS512 uses the shared secret, not a key pair");
+        };
+    }
+}
@@ -0,0 +1,317 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import com.portfolio.usermanagement.entity.JwtSigningKey;
+import com.portfolio.usermanagement.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rotating ES256/EdDSA key ring shared by all nodes through the
+ * jwt_signing_keys table.
+ *
+ * Each node keeps an immutable snapshot of the ring (signing key,
+ * verification keys by kid and the JWKS document) behind a volatile field
+ * and rebuilds it every {@code jwt.signing.reload-interval-ms}. On the same
+ * schedule any node inserts the next key once the current one is due for
+ * rotation. New keys are published {@code publish-ahead-ms} before they sign
+ * anything, so verifiers that cache the JWKS already know them, and retired
+ * keys stay published until every token they signed has expired.
+ *
+ * Private keys are stored AES-GCM encrypted with a key derived from
+ * {@code jwt.secret}.
+ */
+@Component
+public class SigningKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyRing.class);
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private final JwtSigningKeyRepository signingKeyRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SigningAlgorithm algorithm;
+    private final long rotationIntervalMs;
+    private final long publishAheadMs;
+    private final long tokenLifetimeMs;
+    private final SecretKey encryptionKey;
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile KeySet keys = KeySet.EMPTY;
+
+    public SigningKeyRing(JwtSigningKeyRepository signingKeyRepository,
+                          VerifiedTokenCache verifiedTokenCache,
+                          @Value("${jwt.signing.algorithm:HS512}") String algorithm,
+                          @Value("${jwt.signing.rotation-interval-ms:86400000}") long rotationIntervalMs,
+                          @Value("${jwt.signing.publish-ahead-ms:900000}") long publishAheadMs,
+                          @Value("${jwt.expiration}") long tokenLifetimeMs,
+                          @Value("${jwt.secret}") String jwtSecret) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.algorithm = SigningAlgorithm.fromName(algorithm);
+        this.rotationIntervalMs = rotationIntervalMs;
+        this.publishAheadMs = publishAheadMs;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.encryptionKey = deriveEncryptionKey(jwtSecret);
+        if (this.algorithm.isAsymmetric() && rotationIntervalMs <= publishAheadMs) {
+            throw new IllegalStateException("jwt.signing.rotation-interval-ms must exceed jwt.signing.publish-ahead-ms");
+        }
+    }
+
+    /**
+     * Whether tokens are signed from this ring rather than with the shared secret.
+     */
+    public boolean isEnabled() {
+        return algorithm.isAsymmetric();
+    }
+
+    /**
+     * Load the ring, creating the first key if none exists yet, before the first token is issued.
+     */
+    @PostConstruct
+    public void initialize() {
+        if (isEnabled()) {
+            refresh();
+            if (keys.active() == null) {
+                throw new IllegalStateException("No JWT signing key available");
+            }
+            logger.info("JWT signing with {} key ring ({} published keys)", algorithm.jwaName(), keys.publicKeys().size());
+        }
+    }
+
+    /**
+     * Key new tokens are signed with.
+     *
+     * @throws IllegalStateException if the ring is disabled or has no active key
+     */
+    public ActiveKey activeKey() {
+        ActiveKey active = keys.active();
+        if (active == null) {
+            throw new IllegalStateException("No JWT signing key available");
+        }
+        return active;
+    }
+
+    /**
+     * When the oldest published key started signing, or null before the ring is loaded.
+     * Shared-secret tokens cannot have been issued legitimately after this.
+     */
+    public Instant activatedAt() {
+        return keys.activatedAt();
+    }
+
+    /**
+     * Published key for a kid header, or null if unknown or expired.
+     */
+    public PublicKey verificationKey(String kid) {
+        return keys.publicKeys().get(kid);
+    }
+
+    /**
+     * JWK Set document with every published key; empty in HS512 mode.
+     */
+    public String jwksJson() {
+        return keys.jwksJson();
+    }
+
+    /**
+     * Reload the ring, rotating and purging keys as they fall due.
+     * If the table cannot be read the previous ring stays active.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval-ms:60000}")
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            // Millisecond precision survives the round trip through every database timestamp type
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            List<JwtSigningKey> stored = load(now);
+            if (isRotationDue(stored, now)) {
+                createKey(stored, now);
+                stored = load(now);
+            }
+            install(stored, now);
+            signingKeyRepository.deleteExpiredKeys(now);
+        } catch (DataAccessException e) {
+            logger.warn("Keeping previous JWT signing keys, reload failed: {}", e.getMessage());
+        }
+    }
+
+    private List<JwtSigningKey> load(Instant now) {
+        return signingKeyRepository.findByAlgorithmAndExpiresAtAfterOrderByActivatesAtDescKidAsc(algorithm, now);
+    }
+
+    /**
+     * A new key is needed once the newest one has signed for (rotation - publish ahead),
+     * or when no key can sign a token that outlives its own publication.
+     */
+    private boolean isRotationDue(List<JwtSigningKey> stored, Instant now) {
+        if (stored.isEmpty()) {
+            return true;
+        }
+        JwtSigningKey newest = stored.get(0);
+        boolean rotationDue = !newest.getActivatesAt().plusMillis(rotationIntervalMs - publishAheadMs).isAfter(now);
+        return rotationDue || findSigningKey(stored, now) == null && newest.getActivatesAt().isBefore(now);
+    }
+
+    private void createKey(List<JwtSigningKey> stored, Instant now) {
+        // The first key signs immediately; later keys activate once verifiers have seen them
+        Instant activatesAt = now;
+        if (!stored.isEmpty() && findSigningKey(stored, now) != null) {
+            Instant scheduled = stored.get(0).getActivatesAt().plusMillis(rotationIntervalMs);
+            Instant earliest = now.plusMillis(publishAheadMs);
+            activatesAt = scheduled.isAfter(earliest) ? scheduled : earliest;
+        }
+
+        KeyPair pair = algorithm.generateKeyPair();
+        String kid = toJwk(pair.getPublic(), null).thumbprint().toString();
+        signingKeyRepository.save(JwtSigningKey.builder()
+                .kid(kid)
+                .algorithm(algorithm)
+                .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                .privateKey(encrypt(pair.getPrivate().getEncoded()))
+                .activatesAt(activatesAt)
+                .expiresAt(activatesAt.plusMillis(rotationIntervalMs + tokenLifetimeMs + publishAheadMs))
+                .build());
+        logger.info("Created JWT signing key {} activating at {}", kid, activatesAt);
+    }
+
+    private void install(List<JwtSigningKey> stored, Instant now) {
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        StringBuilder jwks = new StringBuilder("{\"keys\":[");
+        for (JwtSigningKey key : stored) {
+            PublicKey publicKey = decodePublicKey(key.getPublicKey());
+            if (!publicKeys.isEmpty()) {
+                jwks.append(',');
+            }
+            publicKeys.put(key.getKid(), publicKey);
+            jwks.append(Jwks.json(toJwk(publicKey, key.getKid())));
+        }
+        jwks.append("]}");
+
+        JwtSigningKey signing = findSigningKey(stored, now);
+        ActiveKey active = signing != null
+                ? new ActiveKey(signing.getKid(), decodePrivateKey(signing.getPrivateKey()))
+                : null;
+
+        // Keys are ordered newest first
+        Instant activatedAt = stored.isEmpty() ? null : stored.get(stored.size() - 1).getActivatesAt();
+
+        KeySet previous = keys;
+        keys = new KeySet(active, Map.copyOf(publicKeys), jwks.toString(), activatedAt);
+
+        // A key withdrawn early (e.g. compromised) must not keep serving cached verifications
+        if (!publicKeys.keySet().containsAll(previous.publicKeys().keySet())) {
+            verifiedTokenCache.clear();
+        }
+        if (active != null && (previous.active() == null || !active.kid().equals(previous.active().kid()))) {
+            logger.info("Signing JWTs with key {}", active.kid());
+        }
+    }
+
+    /**
+     * Most recently activated key that is active now and outlives the tokens it signs.
+     */
+    private JwtSigningKey findSigningKey(List<JwtSigningKey> stored, Instant now) {
+        Instant mustOutlive = now.plusMillis(tokenLifetimeMs);
+        return stored.stream()
+                .filter(key -> !key.getActivatesAt().isAfter(now) && key.getExpiresAt().isAfter(mustOutlive))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private PublicJwk<PublicKey> toJwk(PublicKey publicKey, String kid) {
+        var builder = Jwks.builder().key(publicKey)
+                .algorithm(algorithm.jwaName())
+                .publicKeyUse("sig");
+        return kid != null ? builder.id(kid).build() : builder.build();
+    }
+
+    private PublicKey decodePublicKey(String encoded) {
+        try {
+            return KeyFactory.getInstance(algorithm.keyFactoryAlgorithm())
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT public key", e);
+        }
+    }
+
+    private PrivateKey decodePrivateKey(String encrypted) {
+        try {
+            return KeyFactory.getInstance(algorithm.keyFactoryAlgorithm())
+                    .generatePrivate(new PKCS8EncodedKeySpec(decrypt(encrypted)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decrypt JWT signing key; was jwt.secret changed?", e);
+        }
+    }
+
+    private String encrypt(byte[] plaintext) {
+        try {
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            byte[] ciphertext = cipher.doFinal(plaintext);
+            return Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt JWT signing key", e);
+        }
+    }
+
+    private byte[] decrypt(String encoded) throws GeneralSecurityException {
+        byte[] data = Base64.getDecoder().decode(encoded);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, data, 0, GCM_IV_LENGTH));
+        return cipher.doFinal(data, GCM_IV_LENGTH, data.length - GCM_IV_LENGTH);
+    }
+
+    private static SecretKey deriveEncryptionKey(String jwtSecret) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update("jwt-signing-keys:".getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest.digest(jwtSecret.getBytes(StandardCharsets.UTF_8)), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Signing key with the kid sent in the token header.
+     */
+    public record ActiveKey(String kid, PrivateKey privateKey) {
+    }
+
+    private record KeySet(ActiveKey active, Map<String, PublicKey> publicKeys, String jwksJson, Instant activatedAt) {
+        private static final KeySet EMPTY = new KeySet(null, Map.of(), "{\"keys\":[]}", null);
+    }
+}
@@ -0,0 +1,134 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for expiring items at a deadline.
+ *
+ * Level 0 has one bucket per tick; each higher level covers 64 times the
+ * span of the one below. Scheduling drops an item into the bucket of the
+ * lowest level whose span reaches its deadline, and whenever a lower level
+ * wraps around, the matching bucket one level up is redistributed downward.
+ * Scheduling and expiring are O(1) per item regardless of how many are
+ * pending; deadlines beyond the top level wait in an overflow list that is
+ * redistributed every time the top level wraps.
+ *
+ * Not thread-safe: callers synchronize.
+ *
+ * @param <T> item type
+ */
+public class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMs;
+    private final List<ArrayDeque<Entry<T>>> buckets;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMs resolution; items expire at most one tick late
+     * @param nowMs  current time
+     */
+    public TimingWheel(long tickMs, long nowMs) {
+        if (tickMs < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms");
+        }
+        this.tickMs = tickMs;
+        this.currentTick = nowMs / tickMs;
+        this.buckets = new ArrayList<>(LEVELS * SLOTS);
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Schedule an item to expire at {@code deadlineMs}.
+     *
+     * @return false if the deadline has already passed; the item is not scheduled
+     */
+    public boolean schedule(T item, long deadlineMs) {
+        long tick = Math.ceilDiv(deadlineMs, tickMs);
+        if (tick <= currentTick) {
+            return false;
+        }
+        place(new Entry<>(item, tick));
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance the clock, handing every item whose deadline has passed to {@code expired}.
+     *
+     * @return number of expired items
+     */
+    public int advance(long nowMs, Consumer<? super T> expired) {
+        long target = nowMs / tickMs;
+        int count = 0;
+        while (currentTick < target) {
+            if (size == 0) {
+                // Nothing pending: jump straight to now
+                currentTick = target;
+                break;
+            }
+            currentTick++;
+            cascade();
+            ArrayDeque<Entry<T>> due = bucket(0, currentTick);
+            for (Entry<T> entry; (entry = due.poll()) != null; ) {
+                expired.accept(entry.item());
+                size--;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of scheduled items.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void cascade() {
+        if ((currentTick & ((1L << (LEVELS * BITS)) - 1)) == 0 && !overflow.isEmpty()) {
+            List<Entry<T>> waiting = new ArrayList<>(overflow);
+            overflow.clear();
+            waiting.forEach(this::place);
+        }
+        // Highest level first, so entries moved down can cascade again in the same tick
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (level * BITS)) - 1)) == 0) {
+                ArrayDeque<Entry<T>> bucket = bucket(level, currentTick);
+                List<Entry<T>> moving = new ArrayList<>(bucket);
+                bucket.clear();
+                moving.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.tick() - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << ((level + 1) * BITS)) {
+                bucket(level, entry.tick()).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private ArrayDeque<Entry<T>> bucket(int level, long tick) {
+        return buckets.get(level * SLOTS + (int) ((tick >>> (level * BITS)) & MASK));
+    }
+
+    private record Entry<T>(T item, long tick) {
+    }
+}
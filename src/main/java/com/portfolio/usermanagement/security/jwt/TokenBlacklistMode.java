@@ -0,0 +1,22 @@
+package com.portfolio.usermanagement.security.jwt;
+
+/**
+ * How each node answers blacklist lookups, selected with
+ * {@code app.security.token-blacklist.mode}. The blacklisted_tokens table is
+ * the durable source of truth in both modes.
+ */
+public enum TokenBlacklistMode {
+
+    /**
+     * Every node holds the exact set of unexpired blacklisted JTIs; lookups
+     * never touch the database. Memory grows with the number of revoked tokens.
+     */
+    REPLICATED,
+
+    /**
+     * Every node holds a Bloom filter over the blacklisted JTIs and confirms
+     * probable hits in the database. Fixed memory (about 2 bytes per entry)
+     * at the cost of a query per hit.
+     */
+    BLOOM
+}
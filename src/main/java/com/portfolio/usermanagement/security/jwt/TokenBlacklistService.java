@@ -2,14 +2,19 @@ package com.portfolio.usermanagement.security.jwt;
 
 import com.portfolio.usermanagement.entity.BlacklistedToken;
 import com.portfolio.usermanagement.repository.BlacklistedTokenRepository;
+import com.portfolio.usermanagement.repository.BlacklistedTokenRepository.RevokedJti;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Service to manage JWT token blacklisting for logout functionality.
@@ -17,16 +22,47 @@ import java.util.Date;
  *
  * Now uses database persistence instead of in-memory storage for better reliability
  * and persistence across application restarts.
+ *
+ * The table stays the source of truth, but lookups are answered from memory
+ * (see {@link TokenBlacklistMode}): either an exact {@link RevokedTokenSet}
+ * whose entries leave through a timing wheel when their token expires, or a
+ * {@link BloomFilter} that only sends probable hits to the database. Each
+ * node catches up with tokens blacklisted elsewhere by polling on
+ * blacklisted_at every {@code sync-interval-ms}, so a revocation on another
+ * node applies here within that lag. Until the first load succeeds every
+ * lookup goes to the database.
  */
 @Service
 public class TokenBlacklistService {
 
     private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
+    private static final long EXPIRY_TICK_MS = 1000;
 
     private final BlacklistedTokenRepository blacklistedTokenRepository;
-
-    public TokenBlacklistService(BlacklistedTokenRepository blacklistedTokenRepository) {
+    private final TokenBlacklistMode mode;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long syncOverlapMs;
+
+    private volatile RevokedTokenSet revoked;
+    private volatile BloomFilter filter;
+    private volatile Instant syncedUntil;
+
+    public TokenBlacklistService(BlacklistedTokenRepository blacklistedTokenRepository,
+                                 @Value("${app.security.token-blacklist.mode:replicated}") TokenBlacklistMode mode,
+                                 @Value("${app.security.token-blacklist.filter.expected-insertions:100000}") long expectedInsertions,
+                                 @Value("${app.security.token-blacklist.filter.false-positive-rate:0.001}") double falsePositiveRate,
+                                 @Value("${app.security.token-blacklist.sync-overlap-ms:10000}") long syncOverlapMs) {
         this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.mode = mode;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlapMs = syncOverlapMs;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        reload();
     }
 
     /**
@@ -54,6 +90,9 @@ public class TokenBlacklistService {
             return;
         }
 
+        // Added first so this node rejects the token even before the row commits
+        addLocally(jti, expiry.toInstant());
+
         // Check if already blacklisted to avoid duplicates
         if (blacklistedTokenRepository.existsByJti(jti)) {
             logger.debug("Token already blacklisted: {}", jti);
@@ -80,9 +119,49 @@ public class TokenBlacklistService {
         if (jti == null) {
             return false;
         }
+        if (mode == TokenBlacklistMode.REPLICATED) {
+            RevokedTokenSet current = revoked;
+            if (current != null) {
+                return current.contains(jti);
+            }
+        } else {
+            BloomFilter current = filter;
+            if (current != null && !current.mightContain(jti)) {
+                return false;
+            }
+        }
         return blacklistedTokenRepository.existsByJti(jti);
     }
 
+    /**
+     * Pick up tokens blacklisted by any node since the last sync and drop expired ones.
+     * The window overlaps the previous one by {@code sync-overlap-ms} so rows
+     * committed late or stamped by a node with a skewed clock are not missed;
+     * adding a JTI twice is harmless.
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-blacklist.sync-interval-ms:5000}")
+    public void sync() {
+        boolean loaded = mode == TokenBlacklistMode.REPLICATED ? revoked != null : filter != null;
+        if (!loaded || mode == TokenBlacklistMode.BLOOM && filter.isSaturated()) {
+            reload();
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            for (RevokedJti entry : blacklistedTokenRepository.findBlacklistedSince(syncedUntil.minusMillis(syncOverlapMs))) {
+                addLocally(entry.getJti(), entry.getExpiryTime());
+            }
+            syncedUntil = now;
+        } catch (DataAccessException e) {
+            logger.warn("Token blacklist sync failed: {}", e.getMessage());
+        }
+
+        RevokedTokenSet current = revoked;
+        if (current != null) {
+            current.expire(System.currentTimeMillis());
+        }
+    }
+
     /**
      * Clean up expired tokens from the blacklist.
      * Runs every hour to prevent database from growing indefinitely.
@@ -99,6 +178,51 @@ public class TokenBlacklistService {
         if (removed > 0) {
             logger.info("Cleaned up {} expired tokens from blacklist (total before: {})", removed, initialSize);
         }
+
+        // Bloom filters cannot drop keys; rebuild so expired JTIs stop costing lookups
+        if (mode == TokenBlacklistMode.BLOOM) {
+            reload();
+        }
+    }
+
+    private void addLocally(String jti, Instant expiry) {
+        RevokedTokenSet currentSet = revoked;
+        if (currentSet != null) {
+            currentSet.add(jti, expiry.toEpochMilli());
+        }
+        BloomFilter currentFilter = filter;
+        if (currentFilter != null) {
+            currentFilter.add(jti);
+        }
+    }
+
+    /**
+     * Load all unexpired JTIs into a new set or filter and swap it in.
+     * On failure the current one (or database-only lookups) stays in place.
+     */
+    private void reload() {
+        try {
+            Instant now = Instant.now();
+            List<RevokedJti> entries = blacklistedTokenRepository.findUnexpired(now);
+            if (mode == TokenBlacklistMode.REPLICATED) {
+                RevokedTokenSet loaded = new RevokedTokenSet(EXPIRY_TICK_MS, now.toEpochMilli());
+                entries.forEach(entry -> loaded.add(entry.getJti(), entry.getExpiryTime().toEpochMilli()));
+                revoked = loaded;
+            } else {
+                BloomFilter loaded = new BloomFilter(Math.max(expectedInsertions, 2L * entries.size()), falsePositiveRate);
+                entries.forEach(entry -> loaded.add(entry.getJti()));
+                filter = loaded;
+            }
+            syncedUntil = now;
+
+            // Tokens blacklisted while the query ran went into the previous set or filter
+            for (RevokedJti entry : blacklistedTokenRepository.findBlacklistedSince(now.minusMillis(syncOverlapMs))) {
+                addLocally(entry.getJti(), entry.getExpiryTime());
+            }
+            logger.debug("Token blacklist loaded with {} entries ({})", entries.size(), mode);
+        } catch (DataAccessException e) {
+            logger.warn("Token blacklist load failed: {}", e.getMessage());
+        }
     }
 
     /**
@@ -116,6 +240,7 @@ public class TokenBlacklistService {
     @Transactional
     public void clearAll() {
         blacklistedTokenRepository.deleteAll();
+        reload();
         logger.warn("Token blacklist cleared");
     }
 }
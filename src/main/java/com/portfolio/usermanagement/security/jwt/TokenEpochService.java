@@ -0,0 +1,173 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import com.portfolio.usermanagement.entity.RevokedSubject;
+import com.portfolio.usermanagement.repository.RevokedSubjectRepository;
+import com.portfolio.usermanagement.repository.UserRepository;
+import com.portfolio.usermanagement.repository.UserRepository.TokenEpoch;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user revocation epochs ("log out everywhere").
+ *
+ * Revoking a user's sessions stores the current time in
+ * users.tokens_valid_after; every access token issued at or before it is
+ * rejected. Checks are answered from an in-memory map holding only the
+ * epochs recent enough to matter: once an epoch is older than the access
+ * token lifetime, no token it could reject is still valid. Like the token
+ * blacklist, each node polls for epochs set elsewhere every
+ * {@code sync-interval-ms}, which bounds the cross-node lag.
+ *
+ * Deleting a user removes its row and with it the epoch, while stateless
+ * tokens need nothing else from the server. Deleted users are therefore
+ * revoked in revoked_subjects, whose rows are kept until the token lifetime
+ * has passed.
+ *
+ * Tokens carry their issue time in milliseconds, so a login right after the
+ * revocation is accepted. Tokens without that claim are compared by JWT iat,
+ * which has one-second resolution; those issued in the same second as the
+ * revocation are rejected as well.
+ */
+@Service
+public class TokenEpochService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenEpochService.class);
+
+    private final UserRepository userRepository;
+    private final RevokedSubjectRepository revokedSubjectRepository;
+    private final long tokenLifetimeMs;
+    private final long syncOverlapMs;
+    private final Map<String, Instant> epochs = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+    private volatile Instant syncedUntil;
+
+    public TokenEpochService(UserRepository userRepository,
+                             RevokedSubjectRepository revokedSubjectRepository,
+                             @Value("${jwt.expiration}") long tokenLifetimeMs,
+                             @Value("${app.security.token-epoch.sync-overlap-ms:10000}") long syncOverlapMs) {
+        this.userRepository = userRepository;
+        this.revokedSubjectRepository = revokedSubjectRepository;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.syncOverlapMs = syncOverlapMs;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        sync();
+    }
+
+    /**
+     * Revoke every access token issued to a user so far.
+     *
+     * @param username the user whose sessions end
+     */
+    @Transactional
+    public void revokeAllTokens(String username) {
+        Instant epoch = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        // Applied first so this node rejects the tokens even before the row commits
+        epochs.merge(username, epoch, this::later);
+        userRepository.updateTokensValidAfter(username, epoch);
+        logger.info("Revoked all access tokens for user: {}", username);
+    }
+
+    /**
+     * Revoke every access token of a user that is about to be deleted. Must be
+     * called in the transaction that deletes the user.
+     *
+     * @param username the user being deleted
+     */
+    @Transactional
+    public void revokeDeletedUser(String username) {
+        Instant epoch = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        epochs.merge(username, epoch, this::later);
+        revokedSubjectRepository.save(RevokedSubject.builder()
+                .username(username)
+                .tokensValidAfter(epoch)
+                .expiresAt(epoch.plusMillis(tokenLifetimeMs + 1000))
+                .build());
+        logger.info("Revoked all access tokens of deleted user: {}", username);
+    }
+
+    /**
+     * Check whether a token was issued before its user's revocation epoch.
+     *
+     * @param token verified access token
+     * @return true if the token has been revoked
+     */
+    public boolean isRevoked(ParsedToken token) {
+        Instant epoch = loaded ? epochs.get(token.subject()) : findEpoch(token.subject());
+        if (epoch == null) {
+            return false;
+        }
+        Long issuedAtMs = token.issuedAtMs();
+        if (issuedAtMs != null) {
+            return issuedAtMs <= epoch.toEpochMilli();
+        }
+        Date issuedAt = token.issuedAt();
+        return issuedAt == null || issuedAt.toInstant().getEpochSecond() <= epoch.getEpochSecond();
+    }
+
+    /**
+     * Pick up epochs set by any node since the last sync and forget those
+     * older than the token lifetime. The first run loads every epoch still
+     * within the token lifetime; until it succeeds, checks go to the database.
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-epoch.sync-interval-ms:5000}")
+    public void sync() {
+        try {
+            Instant now = Instant.now();
+            // One extra second covers tokens issued in the epoch's own second
+            Instant oldestRelevant = now.minusMillis(tokenLifetimeMs + 1000);
+            Instant since = loaded ? syncedUntil.minusMillis(syncOverlapMs) : oldestRelevant;
+            for (TokenEpoch entry : userRepository.findTokenEpochsSince(since)) {
+                epochs.merge(entry.getUsername(), entry.getTokensValidAfter(), this::later);
+            }
+            for (TokenEpoch entry : revokedSubjectRepository.findTokenEpochsSince(since)) {
+                epochs.merge(entry.getUsername(), entry.getTokensValidAfter(), this::later);
+            }
+            epochs.values().removeIf(epoch -> epoch.isBefore(oldestRelevant));
+            syncedUntil = now;
+            loaded = true;
+        } catch (DataAccessException e) {
+            logger.warn("Token epoch sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete revocations of deleted users once their tokens have expired.
+     */
+    @Scheduled(fixedRate = 3600000) // Every hour (in milliseconds)
+    @Transactional
+    public void cleanupRevokedSubjects() {
+        int removed = revokedSubjectRepository.deleteExpired(Instant.now());
+        if (removed > 0) {
+            logger.info("Cleaned up {} expired revocations of deleted users", removed);
+        }
+    }
+
+    private Instant findEpoch(String username) {
+        Instant epoch = userRepository.findTokensValidAfterByUsername(username).orElse(null);
+        Instant deleted = revokedSubjectRepository.findTokensValidAfterByUsername(username).orElse(null);
+        if (epoch == null || deleted == null) {
+            return epoch != null ? epoch : deleted;
+        }
+        return later(epoch, deleted);
+    }
+
+    private Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,160 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.portfolio.usermanagement.dto.response.TokenIntrospectionResponse;
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.security.UserDetailsChangedEvent;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves access tokens to their principal for other services (RFC 7662).
+ *
+ * A token is active if its signature verifies, it has not expired, it is
+ * neither blacklisted nor older than its user's revocation epoch, and its
+ * user is enabled and not locked. Active results are cached until shortly
+ * before the token expires, capped at {@code ttl-ms} like the user cache,
+ * and dropped when the user's details change. Revocation is checked again
+ * on every cache hit, so a cached result never outlives a logout.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtUtils jwtUtils;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final TokenEpochService tokenEpochService;
+    private final UserDetailsService userDetailsService;
+    private final long ttlMs;
+    private final long expirySkewMs;
+    private final Cache<String, Entry> cache;
+
+    public TokenIntrospectionService(JwtUtils jwtUtils,
+                                     TokenBlacklistService tokenBlacklistService,
+                                     TokenEpochService tokenEpochService,
+                                     UserDetailsService userDetailsService,
+                                     MetricsService metricsService,
+                                     @Value("${app.security.introspection.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${app.security.introspection.cache.ttl-ms:60000}") long ttlMs,
+                                     @Value("${app.security.introspection.cache.expiry-skew-ms:5000}") long expirySkewMs) {
+        this.jwtUtils = jwtUtils;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenEpochService = tokenEpochService;
+        this.userDetailsService = userDetailsService;
+        this.ttlMs = ttlMs;
+        this.expirySkewMs = expirySkewMs;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        metricsService.monitorCache("jwt.introspection", cache);
+    }
+
+    /**
+     * Introspect a batch of tokens.
+     *
+     * @param tokens compact JWTs
+     * @return one result per token, in the same order
+     */
+    public List<TokenIntrospectionResponse> introspect(List<String> tokens) {
+        return tokens.stream().map(this::introspect).toList();
+    }
+
+    public TokenIntrospectionResponse introspect(String token) {
+        Entry cached = cache.getIfPresent(token);
+        if (cached != null) {
+            if (isRevoked(cached.parsed())) {
+                cache.invalidate(token);
+                return TokenIntrospectionResponse.inactive();
+            }
+            return cached.response();
+        }
+
+        ParsedToken parsed;
+        try {
+            parsed = jwtUtils.parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenIntrospectionResponse.inactive();
+        }
+        if (parsed.remainingMs() == 0 || isRevoked(parsed)) {
+            return TokenIntrospectionResponse.inactive();
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = jwtUtils.isStatelessEnabled() && parsed.hasAuthorities()
+                    ? TokenUserDetails.fromToken(parsed)
+                    : userDetailsService.loadUserByUsername(parsed.subject());
+        } catch (UsernameNotFoundException e) {
+            return TokenIntrospectionResponse.inactive();
+        }
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            return TokenIntrospectionResponse.inactive();
+        }
+
+        TokenIntrospectionResponse response = TokenIntrospectionResponse.builder()
+                .active(true)
+                .sub(parsed.subject())
+                .userId(parsed.userId())
+                .roles(userDetails.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .sorted()
+                        .toList())
+                .exp(parsed.expiration().toInstant().getEpochSecond())
+                .iat(parsed.issuedAt() != null ? parsed.issuedAt().toInstant().getEpochSecond() : null)
+                .jti(parsed.jti())
+                .tokenType("Bearer")
+                .build();
+        cache.put(token, new Entry(parsed, response));
+        return response;
+    }
+
+    /**
+     * Role or status changes must not be served from cache; changes are rare,
+     * so scanning for the user's entries is cheaper than indexing them.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDetailsChanged(UserDetailsChangedEvent event) {
+        cache.asMap().values().removeIf(entry -> entry.parsed().subject().equals(event.username()));
+    }
+
+    private boolean isRevoked(ParsedToken parsed) {
+        return tokenBlacklistService.isBlacklisted(parsed.jti()) || tokenEpochService.isRevoked(parsed);
+    }
+
+    private record Entry(ParsedToken parsed, TokenIntrospectionResponse response) {
+    }
+
+    /**
+     * Entries live until shortly before the token expires, and at most ttl-ms.
+     */
+    private final class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            long remainingMs = Math.max(0, entry.parsed().remainingMs() - expirySkewMs);
+            return TimeUnit.MILLISECONDS.toNanos(Math.min(ttlMs, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal rebuilt from the claims of a stateless access token.
+ *
+ * Carries the user id, authorities and account status captured when the
+ * token was issued, so authenticated requests need no database lookup. It
+ * has no password: it is only ever used as an already-authenticated principal.
+ */
+public class TokenUserDetails extends User {
+
+    private final UUID id;
+
+    public TokenUserDetails(UUID id, String username, Collection<? extends GrantedAuthority> authorities,
+                            boolean enabled, boolean accountNonExpired,
+                            boolean credentialsNonExpired, boolean accountNonLocked) {
+        super(username, "", enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+        this.id = id;
+    }
+
+    /**
+     * Principal for a token issued with authority claims.
+     *
+     * @throws IllegalArgumentException if the token carries no authority claims
+     */
+    public static TokenUserDetails fromToken(ParsedToken token) {
+        List<String> roles = token.roles();
+        if (roles == null) {
+            throw new IllegalArgumentException("Token carries no authority claims");
+        }
+        return new TokenUserDetails(
+                token.userId(),
+                token.subject(),
+                roles.stream().map(SimpleGrantedAuthority::new).toList(),
+                token.flag(ParsedToken.CLAIM_ENABLED),
+                token.flag(ParsedToken.CLAIM_ACCOUNT_NON_EXPIRED),
+                token.flag(ParsedToken.CLAIM_CREDENTIALS_NON_EXPIRED),
+                token.flag(ParsedToken.CLAIM_ACCOUNT_NON_LOCKED));
+    }
+
+    /**
+     * User id from the token, or null if it was issued without one.
+     */
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,103 @@
+package com.portfolio.usermanagement.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ *
+ * Clients send the same access token on every request, so after the first
+ * verification a repeat token costs a 64-bit digest and a string comparison
+ * instead of HMAC verification and JSON decoding. The full token is kept and
+ * compared on every hit, so a digest collision can never return the claims of
+ * a different token. Entries expire together with their token.
+ *
+ * Only the signature check is cached: revocation (blacklist) is still
+ * checked by the caller on every request.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final Cache<Long, Entry> cache;
+
+    public VerifiedTokenCache(MetricsService metricsService,
+                              @Value("${jwt.verified-cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.verified-cache.maximum-size:10000}") long maximumSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        if (enabled) {
+            metricsService.monitorCache("jwt.verified", cache);
+        }
+    }
+
+    /**
+     * Previously verified token with exactly this value, or null.
+     */
+    public ParsedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(digest(token));
+        return entry != null && entry.token().equals(token) ? entry.parsed() : null;
+    }
+
+    public void put(String token, ParsedToken parsed) {
+        if (enabled && parsed.expiration() != null) {
+            cache.put(digest(token), new Entry(token, parsed));
+        }
+    }
+
+    /**
+     * Drop every cached verification, e.g. when signing keys change.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 64-bit FNV-1a over the token characters.
+     */
+    static long digest(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private record Entry(String token, ParsedToken parsed) {
+    }
+
+    /**
+     * Entries live until the token's own expiry.
+     */
+    private static final class TokenExpiry implements Expiry<Long, Entry> {
+
+        @Override
+        public long expireAfterCreate(Long key, Entry entry, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(entry.parsed().remainingMs());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+/**
+ * CIDR prefix in the 128-bit address space of {@link IpAddress}.
+ *
+ * IPv4 prefixes are mapped like IPv4 addresses, so {@code 10.0.0.0/8}
+ * is stored as {@code ::ffff:10.0.0.0/104}.
+ *
+ * @param network      the address with all host bits cleared
+ * @param prefixLength number of significant bits (0-128)
+ */
+public record CidrBlock(IpAddress network, int prefixLength) {
+
+    public CidrBlock {
+        if (prefixLength < 0 || prefixLength > 128) {
+            throw new IllegalArgumentException("Prefix length out of range: " + prefixLength);
+        }
+        network = new IpAddress(maskHigh(network.high(), prefixLength), maskLow(network.low(), prefixLength));
+    }
+
+    /**
+     * Parse {@code address/length}; a bare address is a single-host prefix.
+     *
+     * @throws IllegalArgumentException if the value is not a valid prefix
+     */
+    public static CidrBlock parse(String value) {
+        int slash = value.indexOf('/');
+        IpAddress address = IpAddress.parse(value, 0, slash < 0 ? value.length() : slash);
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid CIDR address: " + value);
+        }
+
+        boolean ipv4 = address.isIpv4() && value.indexOf(':') < 0;
+        int maxLength = ipv4 ? 32 : 128;
+        int length = maxLength;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(value.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CIDR prefix length: " + value);
+            }
+            if (length < 0 || length > maxLength) {
+                throw new IllegalArgumentException("Invalid CIDR prefix length: " + value);
+            }
+        }
+        return new CidrBlock(address, ipv4 ? length + 96 : length);
+    }
+
+    public boolean contains(IpAddress address) {
+        return maskHigh(address.high(), prefixLength) == network.high()
+                && maskLow(address.low(), prefixLength) == network.low();
+    }
+
+    static long maskHigh(long high, int prefixLength) {
+        if (prefixLength >= 64) {
+            return high;
+        }
+        return prefixLength == 0 ? 0 : high & (-1L << (64 - prefixLength));
+    }
+
+    static long maskLow(long low, int prefixLength) {
+        if (prefixLength <= 64) {
+            return 0;
+        }
+        return prefixLength == 128 ? low : low & (-1L << (128 - prefixLength));
+    }
+
+    @Override
+    public String toString() {
+        return network.isIpv4() && prefixLength >= 96
+                ? network + "/" + (prefixLength - 96)
+                : network + "/" + prefixLength;
+    }
+}
@@ -0,0 +1,148 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import java.util.Map;
+
+/**
+ * Immutable compressed binary (Patricia) trie for longest-prefix matching.
+ *
+ * Each node stores its full prefix, so chains of single-child nodes are
+ * collapsed and a lookup visits at most one node per distinct prefix on the
+ * path: O(address bits) in the worst case, with no allocation. A trie is
+ * never modified after {@link #build(Map)}, so a new one can be published
+ * through a volatile field while request threads keep reading the old one.
+ *
+ * @param <V> value attached to each prefix
+ */
+public final class CidrTrie<V> {
+
+    private static final CidrTrie<?> EMPTY = new CidrTrie<>(new Node<>(0, 0, 0, null), 0);
+
+    private final Node<V> root;
+    private final int size;
+
+    private CidrTrie(Node<V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> CidrTrie<V> empty() {
+        return (CidrTrie<V>) EMPTY;
+    }
+
+    /**
+     * Build a trie from prefixes; duplicate prefixes cannot occur in a map.
+     */
+    public static <V> CidrTrie<V> build(Map<CidrBlock, V> prefixes) {
+        Node<V> root = new Node<>(0, 0, 0, null);
+        for (Map.Entry<CidrBlock, V> entry : prefixes.entrySet()) {
+            insert(root, entry.getKey(), entry.getValue());
+        }
+        return new CidrTrie<>(root, prefixes.size());
+    }
+
+    /**
+     * Value of the longest prefix containing the address, or null.
+     */
+    public V lookup(IpAddress address) {
+        long high = address.high();
+        long low = address.low();
+
+        Node<V> node = root;
+        V best = node.value;
+        while (node.length < 128) {
+            Node<V> child = node.child(bit(high, low, node.length));
+            if (child == null || commonPrefixLength(high, low, child.high, child.low, child.length) < child.length) {
+                break;
+            }
+            node = child;
+            if (node.value != null) {
+                best = node.value;
+            }
+        }
+        return best;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static <V> void insert(Node<V> root, CidrBlock block, V value) {
+        long high = block.network().high();
+        long low = block.network().low();
+        int length = block.prefixLength();
+
+        Node<V> node = root;
+        while (true) {
+            // node's prefix is a prefix of the inserted block
+            if (node.length == length) {
+                node.value = value;
+                return;
+            }
+            int branch = bit(high, low, node.length);
+            Node<V> child = node.child(branch);
+            if (child == null) {
+                node.setChild(branch, new Node<>(high, low, length, value));
+                return;
+            }
+
+            int common = commonPrefixLength(high, low, child.high, child.low, Math.min(length, child.length));
+            if (common == child.length) {
+                node = child;
+                continue;
+            }
+
+            // Split the edge at the first differing bit
+            Node<V> split;
+            if (common == length) {
+                split = new Node<>(high, low, length, value);
+            } else {
+                split = new Node<>(CidrBlock.maskHigh(high, common), CidrBlock.maskLow(low, common), common, null);
+                split.setChild(bit(high, low, common), new Node<>(high, low, length, value));
+            }
+            split.setChild(bit(child.high, child.low, common), child);
+            node.setChild(branch, split);
+            return;
+        }
+    }
+
+    private static int bit(long high, long low, int index) {
+        return index < 64
+                ? (int) (high >>> (63 - index)) & 1
+                : (int) (low >>> (127 - index)) & 1;
+    }
+
+    private static int commonPrefixLength(long aHigh, long aLow, long bHigh, long bLow, int max) {
+        long diff = aHigh ^ bHigh;
+        int common = diff != 0 ? Long.numberOfLeadingZeros(diff) : 64 + Long.numberOfLeadingZeros(aLow ^ bLow);
+        return Math.min(common, max);
+    }
+
+    private static final class Node<V> {
+        private final long high;
+        private final long low;
+        private final int length;
+        private V value;
+        private Node<V> zero;
+        private Node<V> one;
+
+        private Node(long high, long low, int length, V value) {
+            this.high = high;
+            this.low = low;
+            this.length = length;
+            this.value = value;
+        }
+
+        private Node<V> child(int bit) {
+            return bit == 0 ? zero : one;
+        }
+
+        private void setChild(int bit, Node<V> child) {
+            if (bit == 0) {
+                zero = child;
+            } else {
+                one = child;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import com.portfolio.usermanagement.config.RateLimitProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Determines the address rate limits and network rules apply to.
+ *
+ * X-Forwarded-For is written by the client, so it is only read when the
+ * connection comes from one of {@code app.rate-limit.trusted-proxies}. The
+ * header is then walked from the right, skipping hops that are trusted
+ * proxies themselves; the first other hop is the client. Everything to its
+ * left was supplied by the client and is ignored.
+ */
+@Component
+public class ClientAddressResolver {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final CidrTrie<Boolean> trustedProxies;
+
+    public ClientAddressResolver(RateLimitProperties properties) {
+        Map<CidrBlock, Boolean> blocks = new LinkedHashMap<>();
+        for (String cidr : properties.getTrustedProxies()) {
+            blocks.put(CidrBlock.parse(cidr), Boolean.TRUE);
+        }
+        this.trustedProxies = CidrTrie.build(blocks);
+    }
+
+    /**
+     * @return the client address, or null if the peer address is not a valid IP
+     */
+    public IpAddress resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        IpAddress client = remoteAddr != null ? IpAddress.parse(remoteAddr) : null;
+        if (client == null || !isTrusted(client)) {
+            return client;
+        }
+
+        // Proxies append, so the last header line holds the hops closest to us
+        List<String> headers = Collections.list(request.getHeaders(FORWARDED_FOR));
+        for (int i = headers.size() - 1; i >= 0; i--) {
+            String header = headers.get(i);
+            int end = header.length();
+            while (end >= 0) {
+                int start = header.lastIndexOf(',', end - 1) + 1;
+                IpAddress hop = IpAddress.parse(header, start, end);
+                if (hop == null) {
+                    // Not written by a proxy we trust; the last trusted hop is all we know
+                    return client;
+                }
+                client = hop;
+                if (!isTrusted(hop)) {
+                    return hop;
+                }
+                end = start - 1;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Client address as recorded for audit, such as refresh_tokens.created_from_ip.
+     *
+     * @return the canonical client address, or null if the peer address is not a valid IP
+     */
+    public String resolveText(HttpServletRequest request) {
+        IpAddress client = resolve(request);
+        return client != null ? client.toString() : null;
+    }
+
+    private boolean isTrusted(IpAddress address) {
+        return trustedProxies.lookup(address) != null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size count-min sketch for estimating per-key request counts.
+ *
+ * Memory is {@code depth * width} counters regardless of how many distinct
+ * keys are seen. Estimates never undercount; they may overcount by the
+ * weight of colliding keys, which the minimum over all rows keeps small.
+ *
+ * Rows are indexed with a hash seeded at startup, so clients cannot choose
+ * keys that collide with a victim's counters. Updates are lock-free.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray counters;
+    private final long seed;
+
+    /**
+     * @param depth number of hash rows
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Sketch depth and width must be positive");
+        }
+        int roundedWidth = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(depth * roundedWidth);
+        this.seed = new SecureRandom().nextLong();
+    }
+
+    /**
+     * Add {@code count} to the key and return its new estimate.
+     */
+    public long add(String key, long count) {
+        return addHashed(hash(key), count);
+    }
+
+    /**
+     * Add {@code count} to a 128-bit key and return its new estimate.
+     */
+    public long add(long high, long low, long count) {
+        return addHashed(mix(mix(seed ^ high) ^ low), count);
+    }
+
+    private long addHashed(long hash, long count) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+            estimate = Math.min(estimate, counters.addAndGet(index, count));
+        }
+        return estimate;
+    }
+
+    /**
+     * Current estimate for the key.
+     */
+    public long estimate(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+            estimate = Math.min(estimate, counters.get(index));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halve every counter so old traffic fades out (exponential decay).
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.updateAndGet(i, value -> value >>> 1);
+        }
+    }
+
+    private long hash(String key) {
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        // MurmurHash3 finalizer
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,182 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Constant-memory detection of the heaviest clients.
+ *
+ * Every rate-limited request is counted in a {@link CountMinSketch}, weighted
+ * by its policy cost. Keys whose estimate reaches a quarter of the block
+ * threshold are offered to a {@link SpaceSavingTopK} tracker, which holds the
+ * current top offenders for the actuator endpoint and metrics. Clients whose
+ * guaranteed count in the tracker exceeds the block threshold are rejected
+ * before any per-client bucket is created or written.
+ *
+ * The sketch only ever overestimates, so it merely selects candidates: under
+ * heavy total traffic every cell may pass the threshold, and blocking on the
+ * estimate would reject everyone. Counting in the tracker starts once a key
+ * is selected, so a client is blocked after at most 1.25 times the threshold.
+ * The sketch width is sized from {@code expected-traffic} so that ordinary
+ * clients are rarely selected at all.
+ *
+ * Counts are halved once per window, so a client is unblocked a few windows
+ * after it stops flooding.
+ */
+@Component
+public class HeavyHitterDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeavyHitterDetector.class);
+
+    /**
+     * Number of top-K ranks exported as gauges.
+     */
+    private static final int GAUGE_RANKS = 10;
+
+    private static final int MAX_SKETCH_WIDTH = 1 << 24;
+
+    private final MetricsService metricsService;
+
+    private final boolean enabled;
+    private final long blockThreshold;
+    private final long trackThreshold;
+    private final long windowMs;
+
+    private final CountMinSketch sketch;
+    private final SpaceSavingTopK topK;
+
+    public HeavyHitterDetector(MetricsService metricsService,
+                               @Value("${app.rate-limit.heavy-hitters.enabled:true}") boolean enabled,
+                               @Value("${app.rate-limit.heavy-hitters.block-threshold:1200}") long blockThreshold,
+                               @Value("${app.rate-limit.heavy-hitters.window-ms:60000}") long windowMs,
+                               @Value("${app.rate-limit.heavy-hitters.top-k:20}") int topKSize,
+                               @Value("${app.rate-limit.heavy-hitters.sketch-depth:4}") int sketchDepth,
+                               @Value("${app.rate-limit.heavy-hitters.sketch-width:4096}") int sketchWidth,
+                               @Value("${app.rate-limit.heavy-hitters.expected-traffic:1000000}") long expectedTraffic) {
+        if (blockThreshold < 1) {
+            throw new IllegalArgumentException("Heavy hitter block threshold must be positive");
+        }
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.blockThreshold = blockThreshold;
+        this.trackThreshold = Math.max(1, blockThreshold / 4);
+        this.windowMs = windowMs;
+        this.sketch = new CountMinSketch(sketchDepth, sketchWidth(sketchWidth, expectedTraffic, trackThreshold));
+        this.topK = new SpaceSavingTopK(topKSize);
+    }
+
+    /**
+     * Width at which colliding traffic adds less than the track threshold to
+     * an estimate, at least {@code configuredWidth}. With halving once per
+     * window the sketch holds up to twice the traffic of a window, and the
+     * count-min error is below {@code e * total / width} for most keys.
+     */
+    static int sketchWidth(int configuredWidth, long expectedTraffic, long trackThreshold) {
+        double required = Math.ceil(Math.E * 2 * expectedTraffic / trackThreshold);
+        if (required > MAX_SKETCH_WIDTH) {
+            throw new IllegalArgumentException("Heavy hitter sketch for " + expectedTraffic
+                    + " requests per window needs " + (long) required + " counters per row; raise block-threshold");
+        }
+        return Math.max(configuredWidth, (int) required);
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        if (enabled) {
+            metricsService.registerHeavyHitterGauges(GAUGE_RANKS, this::estimateAtRank, () -> topK.snapshot().size());
+        }
+    }
+
+    /**
+     * Count a request and decide whether the client must be short-circuited.
+     *
+     * @param clientKey the client identifier (IP address or principal)
+     * @param cost      weight of the request, usually the policy cost
+     * @return true if the client is certainly above the block threshold
+     */
+    public boolean recordAndCheck(String clientKey, int cost) {
+        if (!enabled) {
+            return false;
+        }
+
+        long estimate = sketch.add(clientKey, cost);
+        return estimate >= trackThreshold && isBlocked(topK.offer(clientKey, estimate, cost));
+    }
+
+    /**
+     * Same as {@link #recordAndCheck(String, int)} for a parsed address; the
+     * address is only formatted when it is heavy enough to be tracked.
+     */
+    public boolean recordAndCheck(IpAddress address, int cost) {
+        if (!enabled) {
+            return false;
+        }
+
+        long estimate = sketch.add(address.high(), address.low(), cost);
+        return estimate >= trackThreshold && isBlocked(topK.offer(address.toString(), estimate, cost));
+    }
+
+    private boolean isBlocked(long guaranteed) {
+        if (guaranteed > blockThreshold) {
+            metricsService.recordHeavyHitterBlocked();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Current top offenders, heaviest first.
+     */
+    public List<Offender> getTopOffenders() {
+        return topK.snapshot().stream()
+                .map(entry -> new Offender(entry.key(), entry.count(), entry.guaranteed() > blockThreshold))
+                .toList();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getBlockThreshold() {
+        return blockThreshold;
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    /**
+     * Seconds until a blocked client's count has decayed by one window.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, windowMs / 1000);
+    }
+
+    /**
+     * Halve all counts once per window.
+     */
+    @Scheduled(fixedRateString = "${app.rate-limit.heavy-hitters.window-ms:60000}")
+    public void decay() {
+        if (!enabled) {
+            return;
+        }
+        sketch.decay();
+        topK.decay(trackThreshold);
+        logger.debug("Decayed heavy hitter counts");
+    }
+
+    private long estimateAtRank(int rank) {
+        List<SpaceSavingTopK.Entry> entries = topK.snapshot();
+        return rank < entries.size() ? entries.get(rank).count() : 0;
+    }
+
+    public record Offender(String clientKey, long estimate, boolean blocked) {
+    }
+}
@@ -0,0 +1,264 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+/**
+ * IPv4 or IPv6 address as a 128-bit value.
+ *
+ * IPv4 addresses are stored in their IPv4-mapped IPv6 form
+ * ({@code ::ffff:a.b.c.d}), so both families share one key space. Parsing
+ * works directly on the header characters without splitting or creating
+ * intermediate strings.
+ */
+public record IpAddress(long high, long low) {
+
+    private static final long IPV4_MAPPED_PREFIX = 0x0000_ffff_0000_0000L;
+    private static final long IPV4_PREFIX_MASK = 0xffff_ffff_0000_0000L;
+
+    public static IpAddress ofIpv4(int address) {
+        return new IpAddress(0, IPV4_MAPPED_PREFIX | (address & 0xffff_ffffL));
+    }
+
+    public boolean isIpv4() {
+        return high == 0 && (low & IPV4_PREFIX_MASK) == IPV4_MAPPED_PREFIX;
+    }
+
+    /**
+     * Parse the first entry of a comma-separated list such as X-Forwarded-For.
+     *
+     * @return the address, or null if the entry is not a valid IP address
+     */
+    public static IpAddress parseFirst(CharSequence value) {
+        int end = 0;
+        while (end < value.length() && value.charAt(end) != ',') {
+            end++;
+        }
+        return parse(value, 0, end);
+    }
+
+    /**
+     * Parse an address; surrounding whitespace, IPv6 brackets and zone ids are ignored.
+     *
+     * @return the address, or null if the value is not a valid IP address
+     */
+    public static IpAddress parse(CharSequence value) {
+        return parse(value, 0, value.length());
+    }
+
+    public static IpAddress parse(CharSequence value, int start, int end) {
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        if (start < end && value.charAt(start) == '[') {
+            int close = indexOf(value, ']', start, end);
+            if (close < 0) {
+                return null;
+            }
+            start++;
+            end = close;
+        }
+        int zone = indexOf(value, '%', start, end);
+        if (zone >= 0) {
+            end = zone;
+        }
+        if (start >= end) {
+            return null;
+        }
+
+        if (indexOf(value, ':', start, end) < 0) {
+            long ipv4 = parseIpv4(value, start, end);
+            return ipv4 < 0 ? null : ofIpv4((int) ipv4);
+        }
+        return parseIpv6(value, start, end);
+    }
+
+    /**
+     * @return the address as an unsigned 32-bit value, or -1 if invalid
+     */
+    private static long parseIpv4(CharSequence value, int start, int end) {
+        long address = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 3) {
+                address = (address << 8) | octet;
+                octets++;
+                octet = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (octet < 0 || octets != 3) {
+            return -1;
+        }
+        return (address << 8) | octet;
+    }
+
+    private static IpAddress parseIpv6(CharSequence value, int start, int end) {
+        // Groups before "::" accumulate in head, groups after it in tail
+        long headHigh = 0;
+        long headLow = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        int headGroups = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+
+        int i = start;
+        if (end - start >= 2 && value.charAt(start) == ':' && value.charAt(start + 1) == ':') {
+            compressed = true;
+            i += 2;
+        } else if (value.charAt(start) == ':') {
+            return null;
+        }
+
+        while (i < end) {
+            int groupEnd = i;
+            while (groupEnd < end && value.charAt(groupEnd) != ':') {
+                groupEnd++;
+            }
+
+            long bits;
+            int groups;
+            if (indexOf(value, '.', i, groupEnd) >= 0) {
+                // Embedded IPv4 address, only valid as the last 32 bits
+                if (groupEnd != end) {
+                    return null;
+                }
+                bits = parseIpv4(value, i, groupEnd);
+                groups = 2;
+            } else {
+                bits = parseHexGroup(value, i, groupEnd);
+                groups = 1;
+            }
+            if (bits < 0) {
+                return null;
+            }
+
+            int shift = 16 * groups;
+            if (compressed) {
+                tailHigh = (tailHigh << shift) | (tailLow >>> (64 - shift));
+                tailLow = (tailLow << shift) | bits;
+                tailGroups += groups;
+            } else {
+                headHigh = (headHigh << shift) | (headLow >>> (64 - shift));
+                headLow = (headLow << shift) | bits;
+                headGroups += groups;
+            }
+            if (headGroups + tailGroups > 8) {
+                return null;
+            }
+
+            i = groupEnd;
+            if (i < end) {
+                // Skip the separator; a second colon marks the compressed run
+                i++;
+                if (i < end && value.charAt(i) == ':') {
+                    if (compressed) {
+                        return null;
+                    }
+                    compressed = true;
+                    i++;
+                } else if (i == end) {
+                    return null;
+                }
+            }
+        }
+
+        if (!compressed) {
+            return headGroups == 8 ? new IpAddress(headHigh, headLow) : null;
+        }
+        if (headGroups + tailGroups > 7) {
+            return null;
+        }
+
+        // Move the head groups to the top of the 128 bits and merge the tail
+        int shift = 16 * (8 - headGroups);
+        long high;
+        long low;
+        if (shift >= 128) {
+            high = 0;
+            low = 0;
+        } else if (shift >= 64) {
+            high = headLow << (shift - 64);
+            low = 0;
+        } else {
+            high = (headHigh << shift) | (headLow >>> (64 - shift));
+            low = headLow << shift;
+        }
+        return new IpAddress(high | tailHigh, low | tailLow);
+    }
+
+    private static long parseHexGroup(CharSequence value, int start, int end) {
+        if (start == end || end - start > 4) {
+            return -1;
+        }
+        long group = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(value.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            group = (group << 4) | digit;
+        }
+        return group;
+    }
+
+    private static int indexOf(CharSequence value, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Dotted form for IPv4, RFC 5952 compressed form for IPv6.
+     */
+    @Override
+    public String toString() {
+        if (isIpv4()) {
+            return ((low >>> 24) & 0xff) + "." + ((low >>> 16) & 0xff) + "." + ((low >>> 8) & 0xff) + "." + (low & 0xff);
+        }
+
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < 8; i++) {
+            int length = 0;
+            while (i + length < 8 && group(i + length) == 0) {
+                length++;
+            }
+            if (length > bestLength) {
+                bestStart = i;
+                bestLength = length;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                sb.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ':') {
+                sb.append(':');
+            }
+            sb.append(Integer.toHexString(group(i)));
+        }
+        return sb.toString();
+    }
+
+    private int group(int index) {
+        long word = index < 4 ? high : low;
+        return (int) (word >>> (16 * (3 - (index & 3)))) & 0xffff;
+    }
+}
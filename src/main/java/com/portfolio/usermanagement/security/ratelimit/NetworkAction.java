@@ -0,0 +1,22 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+/**
+ * What happens to requests from a network matched by a CIDR rule.
+ */
+public enum NetworkAction {
+
+    /**
+     * Bypass rate limiting entirely (e.g. internal subnets).
+     */
+    ALLOW,
+
+    /**
+     * Reject with 403 before any rate limit work.
+     */
+    DENY,
+
+    /**
+     * Apply a named policy to the whole network, sharing one bucket.
+     */
+    LIMIT
+}
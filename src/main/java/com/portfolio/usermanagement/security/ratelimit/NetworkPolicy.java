@@ -0,0 +1,11 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+/**
+ * Resolved CIDR rule stored in the network trie.
+ *
+ * @param block  the matched prefix
+ * @param action what to do with requests from the network
+ * @param policy policy applied to the whole network for {@link NetworkAction#LIMIT}, otherwise null
+ */
+public record NetworkPolicy(CidrBlock block, NetworkAction action, RateLimitPolicy policy) {
+}
@@ -0,0 +1,112 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import com.portfolio.usermanagement.config.RateLimitProperties;
+import com.portfolio.usermanagement.entity.NetworkRule;
+import com.portfolio.usermanagement.repository.NetworkRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CIDR allowlist, denylist and per-network limits.
+ *
+ * Rules from {@code app.rate-limit.networks} and the network_rules table are
+ * compiled into an immutable {@link CidrTrie}; the most specific prefix wins.
+ * Reloads build a new trie and swap it in through a volatile field, so
+ * request threads never wait for a reload. If the table cannot be read the
+ * previous rules stay active.
+ */
+@Component
+public class NetworkPolicyRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkPolicyRegistry.class);
+
+    private final RateLimitProperties properties;
+    private final NetworkRuleRepository networkRuleRepository;
+    private final RateLimitPolicyResolver policyResolver;
+
+    private volatile CidrTrie<NetworkPolicy> trie;
+
+    public NetworkPolicyRegistry(RateLimitProperties properties,
+                                 NetworkRuleRepository networkRuleRepository,
+                                 RateLimitPolicyResolver policyResolver) {
+        this.properties = properties;
+        this.networkRuleRepository = networkRuleRepository;
+        this.policyResolver = policyResolver;
+
+        // Configured rules apply from the first request; table rules follow on the first reload
+        Map<CidrBlock, NetworkPolicy> rules = new LinkedHashMap<>();
+        addConfiguredRules(rules);
+        this.trie = CidrTrie.build(rules);
+    }
+
+    /**
+     * Most specific rule for the address, or null if no rule matches.
+     */
+    public NetworkPolicy lookup(IpAddress address) {
+        return trie.lookup(address);
+    }
+
+    /**
+     * Rebuild the trie from configuration and the network_rules table.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.networks-reload-interval-ms:60000}")
+    public void reload() {
+        List<NetworkRule> stored;
+        try {
+            stored = networkRuleRepository.findByEnabledTrue();
+        } catch (DataAccessException e) {
+            logger.warn("Keeping previous network rules, reload failed: {}", e.getMessage());
+            return;
+        }
+
+        Map<CidrBlock, NetworkPolicy> rules = new LinkedHashMap<>();
+        addConfiguredRules(rules);
+        for (NetworkRule rule : stored) {
+            addRule(rules, rule.getCidr(), rule.getAction(), rule.getPolicy());
+        }
+
+        int previous = trie.size();
+        trie = CidrTrie.build(rules);
+        if (rules.size() != previous) {
+            logger.info("Loaded {} network rate limit rules", rules.size());
+        }
+    }
+
+    private void addConfiguredRules(Map<CidrBlock, NetworkPolicy> rules) {
+        for (RateLimitProperties.Network network : properties.getNetworks()) {
+            addRule(rules, network.getCidr(), network.getAction(), network.getPolicy());
+        }
+    }
+
+    private void addRule(Map<CidrBlock, NetworkPolicy> rules, String cidr, NetworkAction action, String policyName) {
+        if (cidr == null || action == null) {
+            logger.warn("Ignoring network rule without cidr or action: {}", cidr);
+            return;
+        }
+
+        CidrBlock block;
+        try {
+            block = CidrBlock.parse(cidr);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring network rule: {}", e.getMessage());
+            return;
+        }
+
+        RateLimitPolicy policy = null;
+        if (action == NetworkAction.LIMIT) {
+            policy = policyName != null ? policyResolver.findByName(policyName) : null;
+            if (policy == null || policy.isExempt()) {
+                logger.warn("Ignoring LIMIT rule for {}: unknown or exempt policy '{}'", cidr, policyName);
+                return;
+            }
+        }
+        rules.put(block, new NetworkPolicy(block, action, policy));
+    }
+}
@@ -0,0 +1,170 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import com.portfolio.usermanagement.security.ratelimit.algorithm.RateLimitAlgorithm;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, off-heap table of per-address rate limit state.
+ *
+ * Slots are fixed-width records in one direct {@link ByteBuffer}:
+ * <pre>
+ *   0  address high 64 bits
+ *   8  address low 64 bits
+ *   16 last access (epoch ms, 0 = empty)
+ *   24 policy id
+ *   32 algorithm state, {@link RateLimitAlgorithm#stateSize()} longs
+ * </pre>
+ * A key hashes to a group of {@value #GROUP_SIZE} consecutive slots and is
+ * only ever stored in that group (open addressing with a bounded probe). When
+ * the group is full the least recently used slot is overwritten, so memory is
+ * fixed at startup and the heap holds no per-client objects no matter how
+ * many clients are seen.
+ *
+ * Groups are guarded by striped monitors; each stripe owns a scratch array the
+ * algorithm works on while the lock is held.
+ */
+public class OffHeapBucketTable {
+
+    static final int GROUP_SIZE = 8;
+
+    private static final int HIGH_OFFSET = 0;
+    private static final int LOW_OFFSET = 8;
+    private static final int ACCESS_OFFSET = 16;
+    private static final int POLICY_OFFSET = 24;
+    private static final int STATE_OFFSET = 32;
+
+    private final RateLimitAlgorithm algorithm;
+    private final ByteBuffer buffer;
+    private final int slotBytes;
+    private final int groupMask;
+    private final Object[] locks;
+    private final long[][] scratch;
+    private final long seed = new SecureRandom().nextLong();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param algorithm the algorithm whose state is stored
+     * @param capacity  number of slots, rounded up to a power of two
+     * @param stripes   number of lock stripes, rounded up to a power of two
+     */
+    public OffHeapBucketTable(RateLimitAlgorithm algorithm, int capacity, int stripes) {
+        int groups = roundUpToPowerOfTwo(Math.max(1, capacity / GROUP_SIZE));
+        this.algorithm = algorithm;
+        this.slotBytes = STATE_OFFSET + algorithm.stateSize() * Long.BYTES;
+
+        long bytes = (long) groups * GROUP_SIZE * slotBytes;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap rate limit table too large: " + bytes + " bytes");
+        }
+        this.buffer = ByteBuffer.allocateDirect((int) bytes);
+        this.groupMask = groups - 1;
+
+        int stripeCount = Math.min(groups, roundUpToPowerOfTwo(stripes));
+        this.locks = new Object[stripeCount];
+        this.scratch = new long[stripeCount][algorithm.stateSize()];
+        for (int i = 0; i < stripeCount; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Run the algorithm for one request.
+     *
+     * @return remaining allowance, or -1 if the request is rejected
+     */
+    public int tryAcquire(long high, long low, int policyId, RateLimitQuota quota, int cost, long nowMs) {
+        int group = (int) (hash(high, low, policyId) & groupMask);
+        int stripe = group & (locks.length - 1);
+        int base = group * GROUP_SIZE * slotBytes;
+
+        synchronized (locks[stripe]) {
+            long[] state = scratch[stripe];
+
+            int slot = -1;
+            int victim = base;
+            long oldest = Long.MAX_VALUE;
+            for (int i = 0; i < GROUP_SIZE; i++) {
+                int offset = base + i * slotBytes;
+                long lastAccess = buffer.getLong(offset + ACCESS_OFFSET);
+                if (lastAccess != 0
+                        && buffer.getLong(offset + HIGH_OFFSET) == high
+                        && buffer.getLong(offset + LOW_OFFSET) == low
+                        && buffer.getInt(offset + POLICY_OFFSET) == policyId) {
+                    slot = offset;
+                    break;
+                }
+                if (lastAccess < oldest) {
+                    oldest = lastAccess;
+                    victim = offset;
+                }
+            }
+
+            if (slot >= 0) {
+                for (int i = 0; i < state.length; i++) {
+                    state[i] = buffer.getLong(slot + STATE_OFFSET + i * Long.BYTES);
+                }
+            } else {
+                if (oldest != 0) {
+                    evictions.increment();
+                }
+                slot = victim;
+                buffer.putLong(slot + HIGH_OFFSET, high);
+                buffer.putLong(slot + LOW_OFFSET, low);
+                buffer.putInt(slot + POLICY_OFFSET, policyId);
+                algorithm.initialize(state, quota, nowMs);
+            }
+
+            int remaining = algorithm.tryAcquire(state, quota, cost, nowMs);
+
+            for (int i = 0; i < state.length; i++) {
+                buffer.putLong(slot + STATE_OFFSET + i * Long.BYTES, state[i]);
+            }
+            buffer.putLong(slot + ACCESS_OFFSET, Math.max(nowMs, 1));
+            return remaining;
+        }
+    }
+
+    /**
+     * Number of slots (active or empty).
+     */
+    public int capacity() {
+        return (groupMask + 1) * GROUP_SIZE;
+    }
+
+    /**
+     * Number of off-heap bytes reserved by the table.
+     */
+    public int sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Number of clients whose state was overwritten to make room for another.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private long hash(long high, long low, int policyId) {
+        long hash = mix(seed ^ high);
+        hash = mix(hash ^ low);
+        return mix(hash ^ policyId);
+    }
+
+    private static long mix(long value) {
+        // MurmurHash3 finalizer
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
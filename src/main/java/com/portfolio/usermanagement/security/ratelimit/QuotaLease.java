@@ -0,0 +1,42 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import java.time.Instant;
+
+/**
+ * Block of tokens one node has leased from the shared rate limit entry of a
+ * client. Guarded by its own monitor; see {@link QuotaLeaseManager}.
+ */
+class QuotaLease {
+
+    RateLimitQuota quota;
+
+    /**
+     * Tokens leased but not yet spent on this node.
+     */
+    int tokens;
+
+    /**
+     * Remaining shared tokens reported by the database when the lease was taken.
+     */
+    int sharedRemaining;
+
+    /**
+     * Size of the last lease; doubled while the client keeps draining its leases.
+     */
+    int size;
+
+    /**
+     * When the oldest unspent tokens were leased.
+     */
+    Instant leasedAt = Instant.EPOCH;
+    long expiresAt;
+
+    /**
+     * Set once the lease has been removed from the table; holders must look it up again.
+     */
+    boolean retired;
+
+    boolean isExpired(long nowMs) {
+        return nowMs >= expiresAt;
+    }
+}
@@ -0,0 +1,192 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import com.portfolio.usermanagement.repository.RateLimitRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token leasing for {@link RateLimitMode#LEASED}.
+ *
+ * Instead of one database round trip per request, a node takes a block of
+ * tokens from the client's shared entry with the same atomic upsert used by
+ * {@link RateLimitMode#DATABASE} and spends it locally. The lease size starts
+ * at the request cost and doubles while the client keeps draining its leases
+ * before they expire, up to {@code app.rate-limit.lease.max-size}; quiet
+ * clients therefore behave like database mode and hot clients cost one round
+ * trip per block.
+ *
+ * Unspent tokens are returned when a lease expires, so the global limit stays
+ * accurate to within one lease per node. When the shared bucket cannot cover
+ * a full block the node falls back to leasing exactly the request cost.
+ */
+@Component
+public class QuotaLeaseManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaLeaseManager.class);
+
+    private final RateLimitRepository rateLimitRepository;
+    private final ConcurrentHashMap<String, QuotaLease> leases = new ConcurrentHashMap<>();
+
+    /**
+     * Largest number of tokens leased for a client in one round trip.
+     */
+    @Value("${app.rate-limit.lease.max-size:20}")
+    private int maxLeaseSize;
+
+    /**
+     * How long a node may keep leased tokens before returning them.
+     */
+    @Value("${app.rate-limit.lease.ttl-ms:1000}")
+    private long leaseTtlMs;
+
+    public QuotaLeaseManager(RateLimitRepository rateLimitRepository) {
+        this.rateLimitRepository = rateLimitRepository;
+    }
+
+    /**
+     * Spend {@code cost} tokens for the client, leasing a new block if needed.
+     *
+     * @param key    the stored client key ({@code <policy>:<client>})
+     * @param quota  quota of the policy
+     * @param cost   number of tokens to consume
+     * @return remaining tokens (shared plus locally leased), or -1 if rejected
+     */
+    public int consume(String key, RateLimitQuota quota, int cost) {
+        while (true) {
+            QuotaLease lease = leases.computeIfAbsent(key, k -> new QuotaLease());
+            synchronized (lease) {
+                if (lease.retired) {
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                if (!lease.isExpired(now) && lease.tokens >= cost) {
+                    lease.tokens -= cost;
+                    return lease.sharedRemaining + lease.tokens;
+                }
+                return renew(key, lease, quota, cost, now);
+            }
+        }
+    }
+
+    private int renew(String key, QuotaLease lease, RateLimitQuota quota, int cost, long now) {
+        int unused = 0;
+        if (lease.isExpired(now) && lease.tokens > 0) {
+            unused = lease.tokens;
+            returnTokens(key, lease);
+        }
+
+        // Grow the block while the client drains it, shrink it by what went unused
+        int size = unused == 0 ? lease.size * 2 : lease.size - unused;
+        size = Math.max(cost, Math.min(size, Math.min(maxLeaseSize, quota.perMinute())));
+
+        Instant leasedAt = Instant.ofEpochMilli(now);
+        Optional<Integer> granted = lease(key, quota, size, leasedAt);
+        if (granted.isEmpty() && size > cost) {
+            size = cost;
+            granted = lease(key, quota, size, leasedAt);
+        }
+        if (granted.isEmpty()) {
+            lease.size = cost;
+            return -1;
+        }
+
+        // Leftovers of the previous lease keep its timestamp: returning them
+        // must not refill a window that was reset after they were taken
+        if (lease.tokens == 0) {
+            lease.leasedAt = leasedAt;
+        }
+        lease.quota = quota;
+        lease.tokens += size - cost;
+        lease.sharedRemaining = granted.get();
+        lease.size = size;
+        lease.expiresAt = now + leaseTtlMs;
+        return lease.sharedRemaining + lease.tokens;
+    }
+
+    private Optional<Integer> lease(String key, RateLimitQuota quota, int size, Instant now) {
+        return rateLimitRepository.consumeTokens(
+                key,
+                size,
+                quota.perMinute(),
+                quota.perHour(),
+                now,
+                now.minus(Duration.ofMinutes(1)),
+                now.minus(Duration.ofHours(1)));
+    }
+
+    /**
+     * Return the unspent tokens of expired leases and drop leases that have
+     * been idle for a further TTL.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.lease.ttl-ms:1000}")
+    public void returnExpiredLeases() {
+        long now = System.currentTimeMillis();
+        int returned = 0;
+        for (Map.Entry<String, QuotaLease> entry : leases.entrySet()) {
+            QuotaLease lease = entry.getValue();
+            synchronized (lease) {
+                if (!lease.isExpired(now)) {
+                    continue;
+                }
+                if (lease.tokens > 0) {
+                    returned += lease.tokens;
+                    returnTokens(entry.getKey(), lease);
+                }
+                if (now >= lease.expiresAt + leaseTtlMs) {
+                    lease.retired = true;
+                    leases.remove(entry.getKey(), lease);
+                }
+            }
+        }
+        if (returned > 0) {
+            logger.debug("Returned {} unused leased rate limit tokens", returned);
+        }
+    }
+
+    /**
+     * Return all outstanding tokens before the application shuts down.
+     */
+    @PreDestroy
+    public void returnAllLeases() {
+        for (Map.Entry<String, QuotaLease> entry : leases.entrySet()) {
+            QuotaLease lease = entry.getValue();
+            synchronized (lease) {
+                lease.expiresAt = 0;
+                lease.retired = true;
+                try {
+                    returnTokens(entry.getKey(), lease);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to return leased tokens for {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+        leases.clear();
+    }
+
+    /**
+     * Must be called while holding the lease monitor.
+     */
+    private void returnTokens(String key, QuotaLease lease) {
+        if (lease.tokens <= 0) {
+            return;
+        }
+        int amount = lease.tokens;
+        lease.tokens = 0;
+        rateLimitRepository.returnTokens(
+                key,
+                amount,
+                lease.quota.perMinute(),
+                lease.quota.perHour(),
+                lease.leasedAt);
+    }
+}
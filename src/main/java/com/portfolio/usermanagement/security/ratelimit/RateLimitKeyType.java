@@ -0,0 +1,18 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+/**
+ * How a rate limit policy identifies clients.
+ */
+public enum RateLimitKeyType {
+
+    /**
+     * Client IP address, as determined by {@link ClientAddressResolver}.
+     */
+    IP,
+
+    /**
+     * Subject of a valid bearer token; falls back to the IP address for
+     * anonymous requests.
+     */
+    PRINCIPAL
+}
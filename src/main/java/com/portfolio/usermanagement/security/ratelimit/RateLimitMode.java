@@ -0,0 +1,26 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+/**
+ * Where rate limit state is kept, selected with {@code app.rate-limit.mode}.
+ */
+public enum RateLimitMode {
+
+    /**
+     * Buckets live in process memory and are flushed to the database in batches.
+     * Fastest option; each node enforces its limits independently.
+     */
+    MEMORY,
+
+    /**
+     * Every check is a single atomic upsert against rate_limit_entries.
+     * Limits are shared by all nodes at the cost of one round trip per request.
+     */
+    DATABASE,
+
+    /**
+     * Each node leases blocks of tokens from rate_limit_entries and spends them
+     * locally; unused tokens are returned when the lease expires. Limits are
+     * shared by all nodes with one round trip per lease instead of per request.
+     */
+    LEASED
+}
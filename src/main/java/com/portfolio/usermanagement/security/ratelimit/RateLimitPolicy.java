@@ -0,0 +1,72 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.List;
+
+/**
+ * Resolved rate limit policy: which requests it covers, how clients are
+ * keyed, their quota and how many tokens each request costs.
+ */
+public class RateLimitPolicy {
+
+    private final int id;
+    private final String name;
+    private final List<RequestMatcher> matchers;
+    private final RateLimitKeyType keyType;
+    private final RateLimitQuota quota;
+    private final int cost;
+    private final boolean exempt;
+
+    public RateLimitPolicy(int id, String name, List<RequestMatcher> matchers, RateLimitKeyType keyType,
+                           RateLimitQuota quota, int cost, boolean exempt) {
+        if (!exempt && (cost <= 0 || cost > quota.perMinute() || cost > quota.perHour())) {
+            throw new IllegalArgumentException(
+                    "Rate limit policy '" + name + "' has a cost outside its quota: " + cost);
+        }
+        this.id = id;
+        this.name = name;
+        this.matchers = List.copyOf(matchers);
+        this.keyType = keyType;
+        this.quota = quota;
+        this.cost = cost;
+        this.exempt = exempt;
+    }
+
+    public boolean matches(HttpServletRequest request) {
+        for (RequestMatcher matcher : matchers) {
+            if (matcher.matches(request)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Position in the policy table; identifies the policy in primitive-keyed state.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RateLimitKeyType getKeyType() {
+        return keyType;
+    }
+
+    public RateLimitQuota getQuota() {
+        return quota;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public boolean isExempt() {
+        return exempt;
+    }
+}
@@ -0,0 +1,92 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import com.portfolio.usermanagement.config.RateLimitProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps requests to rate limit policies using the configured policy table.
+ */
+@Component
+public class RateLimitPolicyResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitPolicyResolver.class);
+
+    public static final String DEFAULT_POLICY = "default";
+
+    private final List<RateLimitPolicy> policies = new ArrayList<>();
+    private final Map<String, RateLimitPolicy> policiesByName = new HashMap<>();
+    private final RateLimitPolicy defaultPolicy;
+
+    public RateLimitPolicyResolver(RateLimitProperties properties) {
+        RateLimitQuota defaultQuota = new RateLimitQuota(properties.getRequestsPerMinute(), properties.getRequestsPerHour());
+        this.defaultPolicy = new RateLimitPolicy(0, DEFAULT_POLICY, List.of(), RateLimitKeyType.IP, defaultQuota, 1, false);
+        policiesByName.put(DEFAULT_POLICY, defaultPolicy);
+
+        for (RateLimitProperties.Policy config : properties.getPolicies()) {
+            RateLimitPolicy policy = toPolicy(policies.size() + 1, config, defaultQuota);
+            if (policiesByName.putIfAbsent(policy.getName(), policy) != null) {
+                throw new IllegalStateException("Duplicate rate limit policy name: " + policy.getName());
+            }
+            policies.add(policy);
+        }
+        logger.info("Loaded {} rate limit policies", policies.size());
+    }
+
+    /**
+     * Find the first policy matching the request, or the default policy.
+     */
+    public RateLimitPolicy resolve(HttpServletRequest request) {
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(request)) {
+                return policy;
+            }
+        }
+        return defaultPolicy;
+    }
+
+    /**
+     * Look up a policy by name (used when restoring persisted state).
+     *
+     * @return the policy, or null if no policy has that name
+     */
+    public RateLimitPolicy findByName(String name) {
+        return policiesByName.get(name);
+    }
+
+    public RateLimitPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    private RateLimitPolicy toPolicy(int id, RateLimitProperties.Policy config, RateLimitQuota defaultQuota) {
+        if (config.getName() == null || config.getName().isBlank() || config.getName().contains(":")) {
+            throw new IllegalStateException("Rate limit policies need a name without ':'");
+        }
+
+        List<RequestMatcher> matchers = new ArrayList<>();
+        for (String path : config.getPaths()) {
+            if (config.getMethods().isEmpty()) {
+                matchers.add(new AntPathRequestMatcher(path));
+            } else {
+                for (String method : config.getMethods()) {
+                    matchers.add(new AntPathRequestMatcher(path, method));
+                }
+            }
+        }
+
+        RateLimitQuota quota = new RateLimitQuota(
+                config.getRequestsPerMinute() != null ? config.getRequestsPerMinute() : defaultQuota.perMinute(),
+                config.getRequestsPerHour() != null ? config.getRequestsPerHour() : defaultQuota.perHour());
+
+        return new RateLimitPolicy(id, config.getName(), matchers, config.getKey(), quota, config.getCost(), config.isExempt());
+    }
+}
@@ -0,0 +1,16 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+/**
+ * Request allowance for a client: a per-minute and a per-hour limit.
+ *
+ * @param perMinute maximum requests per minute (also the burst size)
+ * @param perHour   maximum requests per hour
+ */
+public record RateLimitQuota(int perMinute, int perHour) {
+
+    public RateLimitQuota {
+        if (perMinute <= 0 || perHour <= 0) {
+            throw new IllegalArgumentException("Rate limit quotas must be positive");
+        }
+    }
+}
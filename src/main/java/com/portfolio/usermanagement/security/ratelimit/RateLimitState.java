@@ -0,0 +1,80 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import com.portfolio.usermanagement.entity.RateLimitEntry;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.RateLimitAlgorithm;
+
+import java.time.Instant;
+
+/**
+ * In-memory rate limit state for a single client under one policy.
+ *
+ * Instances are guarded by their own monitor, so concurrent requests from
+ * different clients never contend with each other. The algorithm-specific
+ * state is a fixed-size {@code long[]}; timestamps are epoch milliseconds to
+ * keep the hot path free of allocations.
+ */
+public class RateLimitState {
+
+    private final RateLimitQuota quota;
+    private final long[] state;
+    private long lastAccessTime;
+    private boolean modified;
+
+    private RateLimitState(RateLimitQuota quota, int size, long lastAccessTime) {
+        this.quota = quota;
+        this.state = new long[size];
+        this.lastAccessTime = lastAccessTime;
+    }
+
+    /**
+     * Create state for a client that has not made any requests yet.
+     */
+    public static RateLimitState initial(RateLimitAlgorithm algorithm, RateLimitQuota quota, long nowMs) {
+        RateLimitState rateLimitState = new RateLimitState(quota, algorithm.stateSize(), nowMs);
+        algorithm.initialize(rateLimitState.state, quota, nowMs);
+        return rateLimitState;
+    }
+
+    /**
+     * Restore state from its persisted representation.
+     */
+    public static RateLimitState fromEntry(RateLimitAlgorithm algorithm, RateLimitQuota quota, RateLimitEntry entry) {
+        RateLimitState rateLimitState = new RateLimitState(quota, algorithm.stateSize(), entry.getLastAccessTime().toEpochMilli());
+        algorithm.readFrom(entry, quota, rateLimitState.state);
+        return rateLimitState;
+    }
+
+    /**
+     * Try to consume {@code cost} permits.
+     *
+     * @return remaining permits if the request is allowed, or -1 if it is rejected
+     */
+    public synchronized int tryAcquire(RateLimitAlgorithm algorithm, int cost, long nowMs) {
+        int remaining = algorithm.tryAcquire(state, quota, cost, nowMs);
+        if (remaining >= 0) {
+            lastAccessTime = nowMs;
+            modified = true;
+        }
+        return remaining;
+    }
+
+    /**
+     * Copy the current state into an entity for write-behind persistence.
+     */
+    public synchronized void copyTo(RateLimitAlgorithm algorithm, long nowMs, RateLimitEntry entry) {
+        algorithm.writeTo(state, quota, nowMs, entry);
+        entry.setLastAccessTime(Instant.ofEpochMilli(lastAccessTime));
+        modified = false;
+    }
+
+    /**
+     * Whether the state changed since it was last copied for persistence.
+     */
+    public synchronized boolean isModified() {
+        return modified;
+    }
+
+    public synchronized long getLastAccessTime() {
+        return lastAccessTime;
+    }
+}
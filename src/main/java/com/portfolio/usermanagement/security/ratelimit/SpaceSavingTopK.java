@@ -0,0 +1,140 @@
+package com.portfolio.usermanagement.security.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Space-Saving tracker for the K heaviest keys.
+ *
+ * At most {@code capacity} keys are monitored, each with a count of the
+ * weight offered for it and an error bound. When a new key arrives and the
+ * table is full, it replaces the key with the smallest count, inheriting that
+ * count as its error. {@code count - error} is therefore a guaranteed lower
+ * bound of the weight offered for the key, whatever else was offered.
+ *
+ * Whether an unmonitored key is admitted is decided by a
+ * {@link CountMinSketch} estimate: keys whose estimate is not above the
+ * current minimum are rejected without taking the lock, so ordinary clients
+ * do not contend on the tracker.
+ */
+public class SpaceSavingTopK {
+
+    private final int capacity;
+
+    /**
+     * Read without the lock on the fast path; only modified while holding it.
+     */
+    private final Map<String, Counter> counters;
+
+    /**
+     * Lowest count a key needs to enter the table; zero while it has free slots.
+     */
+    private volatile long admissionCount;
+
+    public SpaceSavingTopK(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Top-K capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    /**
+     * Add {@code weight} to the key if it is monitored or can be admitted.
+     *
+     * @param estimate sketch estimate for the key, used to decide admission
+     * @return the guaranteed count of the key, or 0 if it is not monitored
+     */
+    public long offer(String key, long estimate, long weight) {
+        if (estimate <= admissionCount && !counters.containsKey(key)) {
+            return 0;
+        }
+        synchronized (this) {
+            Counter counter = counters.get(key);
+            if (counter != null) {
+                counter.count += weight;
+            } else if (counters.size() < capacity) {
+                counter = new Counter(key, weight, 0);
+                counters.put(key, counter);
+            } else {
+                Counter min = findMin();
+                if (estimate <= min.count) {
+                    return 0;
+                }
+                counters.remove(min.key);
+                counter = new Counter(key, min.count + weight, min.count);
+                counters.put(key, counter);
+            }
+            updateAdmissionCount();
+            return counter.count - counter.error;
+        }
+    }
+
+    /**
+     * Halve all counts and error bounds, and drop keys whose count fell below
+     * {@code minCount}.
+     */
+    public synchronized void decay(long minCount) {
+        counters.values().removeIf(counter -> {
+            counter.count >>>= 1;
+            counter.error >>>= 1;
+            return counter.count < minCount;
+        });
+        updateAdmissionCount();
+    }
+
+    /**
+     * Monitored keys, heaviest first.
+     */
+    public synchronized List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        for (Counter counter : counters.values()) {
+            entries.add(new Entry(counter.key, counter.count, counter.error));
+        }
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        return entries;
+    }
+
+    private Counter findMin() {
+        Counter min = null;
+        for (Counter counter : counters.values()) {
+            if (min == null || counter.count < min.count) {
+                min = counter;
+            }
+        }
+        return min;
+    }
+
+    private void updateAdmissionCount() {
+        admissionCount = counters.size() < capacity ? 0 : findMin().count;
+    }
+
+    private static final class Counter {
+        private final String key;
+        private long count;
+        private long error;
+
+        private Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * @param count upper bound of the weight offered for the key
+     * @param error how much of {@code count} may belong to keys it replaced
+     */
+    public record Entry(String key, long count, long error) {
+
+        /**
+         * Weight certainly offered for this key.
+         */
+        public long guaranteed() {
+            return count - error;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.portfolio.usermanagement.security.ratelimit.algorithm;
+
+import com.portfolio.usermanagement.entity.RateLimitEntry;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitQuota;
+
+import java.time.Instant;
+
+/**
+ * Generic Cell Rate Algorithm (virtual scheduling form).
+ *
+ * The only state is the theoretical arrival time (TAT) of the next request.
+ * Requests are spaced at the hourly rate ({@code 1h / perHour}) and a burst
+ * of up to {@code perMinute} requests is tolerated, so there is no refill
+ * step at minute boundaries and traffic is smoothed continuously.
+ */
+public class GcraAlgorithm implements RateLimitAlgorithm {
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long HOUR_MS = 3_600_000L;
+
+    private static final int TAT = 0;
+
+    @Override
+    public int stateSize() {
+        return 1;
+    }
+
+    @Override
+    public void initialize(long[] state, RateLimitQuota quota, long nowMs) {
+        state[TAT] = nowMs;
+    }
+
+    @Override
+    public int tryAcquire(long[] state, RateLimitQuota quota, int cost, long nowMs) {
+        long interval = emissionInterval(quota);
+        long burstWindow = interval * quota.perMinute();
+
+        long newTat = Math.max(state[TAT], nowMs) + interval * cost;
+        long backlog = newTat - nowMs;
+        if (backlog > burstWindow) {
+            return -1;
+        }
+        state[TAT] = newTat;
+        return (int) ((burstWindow - backlog) / interval);
+    }
+
+    @Override
+    public void writeTo(long[] state, RateLimitQuota quota, long nowMs, RateLimitEntry entry) {
+        long interval = emissionInterval(quota);
+        long backlog = Math.max(0, state[TAT] - nowMs);
+        int remaining = (int) Math.max(0, (interval * quota.perMinute() - backlog) / interval);
+
+        Instant snapshotTime = Instant.ofEpochMilli(nowMs);
+        entry.setTokens(remaining);
+        entry.setLastRefillTime(snapshotTime);
+        entry.setHourlyTokens(remaining);
+        entry.setHourlyRefillTime(snapshotTime);
+    }
+
+    @Override
+    public void readFrom(RateLimitEntry entry, RateLimitQuota quota, long[] state) {
+        long interval = emissionInterval(quota);
+        int remaining = Math.max(0, Math.min(quota.perMinute(), Math.min(entry.getTokens(), entry.getHourlyTokens())));
+        state[TAT] = entry.getLastRefillTime().toEpochMilli() + interval * (quota.perMinute() - remaining);
+    }
+
+    /**
+     * Time between requests at the sustained rate. The stricter of the two
+     * quotas wins so the hourly limit holds even for a tight per-minute quota.
+     */
+    private long emissionInterval(RateLimitQuota quota) {
+        return Math.max(HOUR_MS / quota.perHour(), MINUTE_MS / quota.perMinute());
+    }
+}
@@ -0,0 +1,41 @@
+package com.portfolio.usermanagement.security.ratelimit.algorithm;
+
+import com.portfolio.usermanagement.entity.RateLimitEntry;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitQuota;
+
+/**
+ * Strategy for deciding whether a client may perform a request.
+ *
+ * Implementations are stateless; per-client state lives in a fixed-size
+ * {@code long[]} owned by the caller, which also serialises access to it.
+ * All timestamps are epoch milliseconds.
+ */
+public interface RateLimitAlgorithm {
+
+    /**
+     * Number of {@code long} slots this algorithm needs per client.
+     */
+    int stateSize();
+
+    /**
+     * Initialise state for a client that has not made any requests yet.
+     */
+    void initialize(long[] state, RateLimitQuota quota, long nowMs);
+
+    /**
+     * Try to take {@code cost} permits.
+     *
+     * @return remaining permits if the request is allowed, or -1 if it is rejected
+     */
+    int tryAcquire(long[] state, RateLimitQuota quota, int cost, long nowMs);
+
+    /**
+     * Describe the state as remaining minute/hour allowance for persistence.
+     */
+    void writeTo(long[] state, RateLimitQuota quota, long nowMs, RateLimitEntry entry);
+
+    /**
+     * Rebuild state from a persisted entry written by {@link #writeTo}.
+     */
+    void readFrom(RateLimitEntry entry, RateLimitQuota quota, long[] state);
+}
@@ -0,0 +1,30 @@
+package com.portfolio.usermanagement.security.ratelimit.algorithm;
+
+/**
+ * Built-in algorithms, selected with {@code app.rate-limit.algorithm}.
+ */
+public enum RateLimitAlgorithmType {
+
+    /**
+     * Dual minute/hour bucket refilled in whole-minute/hour steps (original behaviour).
+     */
+    TOKEN_BUCKET,
+
+    /**
+     * Generic Cell Rate Algorithm: one theoretical arrival time per client.
+     */
+    GCRA,
+
+    /**
+     * Sliding-window counter over the previous and current minute/hour.
+     */
+    SLIDING_WINDOW;
+
+    public RateLimitAlgorithm create() {
+        return switch (this) {
+            case TOKEN_BUCKET -> new TokenBucketAlgorithm();
+            case GCRA -> new GcraAlgorithm();
+            case SLIDING_WINDOW -> new SlidingWindowCounterAlgorithm();
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.portfolio.usermanagement.security.ratelimit.algorithm;
+
+import com.portfolio.usermanagement.entity.RateLimitEntry;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitQuota;
+
+import java.time.Instant;
+
+/**
+ * Sliding-window counter for the minute and hour limits.
+ *
+ * Each window keeps the count of the previous and the current fixed window;
+ * the number of requests in the sliding window is estimated by weighting the
+ * previous count with the part of it that still overlaps. This avoids the
+ * burst a fixed window allows right after a boundary.
+ */
+public class SlidingWindowCounterAlgorithm implements RateLimitAlgorithm {
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long HOUR_MS = 3_600_000L;
+
+    private static final int MINUTE_OFFSET = 0;
+    private static final int HOUR_OFFSET = 3;
+
+    // Slot layout within each window: start, previous count, current count
+    private static final int START = 0;
+    private static final int PREVIOUS = 1;
+    private static final int CURRENT = 2;
+
+    @Override
+    public int stateSize() {
+        return 6;
+    }
+
+    @Override
+    public void initialize(long[] state, RateLimitQuota quota, long nowMs) {
+        state[MINUTE_OFFSET + START] = nowMs;
+        state[MINUTE_OFFSET + PREVIOUS] = 0;
+        state[MINUTE_OFFSET + CURRENT] = 0;
+        state[HOUR_OFFSET + START] = nowMs;
+        state[HOUR_OFFSET + PREVIOUS] = 0;
+        state[HOUR_OFFSET + CURRENT] = 0;
+    }
+
+    @Override
+    public int tryAcquire(long[] state, RateLimitQuota quota, int cost, long nowMs) {
+        roll(state, MINUTE_OFFSET, MINUTE_MS, nowMs);
+        roll(state, HOUR_OFFSET, HOUR_MS, nowMs);
+
+        long minuteRemaining = quota.perMinute() - estimate(state, MINUTE_OFFSET, MINUTE_MS, nowMs);
+        long hourRemaining = quota.perHour() - estimate(state, HOUR_OFFSET, HOUR_MS, nowMs);
+        if (minuteRemaining < cost || hourRemaining < cost) {
+            return -1;
+        }
+
+        state[MINUTE_OFFSET + CURRENT] += cost;
+        state[HOUR_OFFSET + CURRENT] += cost;
+        return (int) (Math.min(minuteRemaining, hourRemaining) - cost);
+    }
+
+    @Override
+    public void writeTo(long[] state, RateLimitQuota quota, long nowMs, RateLimitEntry entry) {
+        roll(state, MINUTE_OFFSET, MINUTE_MS, nowMs);
+        roll(state, HOUR_OFFSET, HOUR_MS, nowMs);
+
+        entry.setTokens((int) Math.max(0, quota.perMinute() - estimate(state, MINUTE_OFFSET, MINUTE_MS, nowMs)));
+        entry.setLastRefillTime(Instant.ofEpochMilli(nowMs));
+        entry.setHourlyTokens((int) Math.max(0, quota.perHour() - estimate(state, HOUR_OFFSET, HOUR_MS, nowMs)));
+        entry.setHourlyRefillTime(Instant.ofEpochMilli(nowMs));
+    }
+
+    @Override
+    public void readFrom(RateLimitEntry entry, RateLimitQuota quota, long[] state) {
+        // Treat the used allowance as requests made at the snapshot time
+        state[MINUTE_OFFSET + START] = entry.getLastRefillTime().toEpochMilli();
+        state[MINUTE_OFFSET + PREVIOUS] = 0;
+        state[MINUTE_OFFSET + CURRENT] = Math.max(0, quota.perMinute() - entry.getTokens());
+        state[HOUR_OFFSET + START] = entry.getHourlyRefillTime().toEpochMilli();
+        state[HOUR_OFFSET + PREVIOUS] = 0;
+        state[HOUR_OFFSET + CURRENT] = Math.max(0, quota.perHour() - entry.getHourlyTokens());
+    }
+
+    /**
+     * Advance the fixed window containing {@code nowMs}, shifting counts as needed.
+     */
+    private static void roll(long[] state, int offset, long windowMs, long nowMs) {
+        long elapsed = nowMs - state[offset + START];
+        if (elapsed < windowMs) {
+            return;
+        }
+        long windowsPassed = elapsed / windowMs;
+        state[offset + PREVIOUS] = windowsPassed == 1 ? state[offset + CURRENT] : 0;
+        state[offset + CURRENT] = 0;
+        state[offset + START] += windowsPassed * windowMs;
+    }
+
+    /**
+     * Estimated number of requests in the sliding window ending at {@code nowMs}.
+     */
+    private static long estimate(long[] state, int offset, long windowMs, long nowMs) {
+        long elapsed = Math.max(0, nowMs - state[offset + START]);
+        long previousWeight = windowMs - Math.min(elapsed, windowMs);
+        return state[offset + CURRENT] + (state[offset + PREVIOUS] * previousWeight + windowMs - 1) / windowMs;
+    }
+}
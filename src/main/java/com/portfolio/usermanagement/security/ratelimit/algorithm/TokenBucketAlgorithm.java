@@ -0,0 +1,71 @@
+package com.portfolio.usermanagement.security.ratelimit.algorithm;
+
+import com.portfolio.usermanagement.entity.RateLimitEntry;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitQuota;
+
+import java.time.Instant;
+
+/**
+ * Dual token bucket: one bucket per minute and one per hour.
+ * Each bucket is restored to full capacity once a whole minute (or hour)
+ * has passed since its last refill, matching the original database-backed
+ * implementation and the SQL used in database mode.
+ */
+public class TokenBucketAlgorithm implements RateLimitAlgorithm {
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long HOUR_MS = 3_600_000L;
+
+    private static final int TOKENS = 0;
+    private static final int LAST_REFILL = 1;
+    private static final int HOURLY_TOKENS = 2;
+    private static final int HOURLY_REFILL = 3;
+
+    @Override
+    public int stateSize() {
+        return 4;
+    }
+
+    @Override
+    public void initialize(long[] state, RateLimitQuota quota, long nowMs) {
+        state[TOKENS] = quota.perMinute();
+        state[LAST_REFILL] = nowMs;
+        state[HOURLY_TOKENS] = quota.perHour();
+        state[HOURLY_REFILL] = nowMs;
+    }
+
+    @Override
+    public int tryAcquire(long[] state, RateLimitQuota quota, int cost, long nowMs) {
+        if (nowMs - state[LAST_REFILL] >= MINUTE_MS) {
+            state[TOKENS] = quota.perMinute();
+            state[LAST_REFILL] = nowMs;
+        }
+        if (nowMs - state[HOURLY_REFILL] >= HOUR_MS) {
+            state[HOURLY_TOKENS] = quota.perHour();
+            state[HOURLY_REFILL] = nowMs;
+        }
+
+        if (state[TOKENS] < cost || state[HOURLY_TOKENS] < cost) {
+            return -1;
+        }
+        state[TOKENS] -= cost;
+        state[HOURLY_TOKENS] -= cost;
+        return (int) Math.min(state[TOKENS], state[HOURLY_TOKENS]);
+    }
+
+    @Override
+    public void writeTo(long[] state, RateLimitQuota quota, long nowMs, RateLimitEntry entry) {
+        entry.setTokens((int) state[TOKENS]);
+        entry.setLastRefillTime(Instant.ofEpochMilli(state[LAST_REFILL]));
+        entry.setHourlyTokens((int) state[HOURLY_TOKENS]);
+        entry.setHourlyRefillTime(Instant.ofEpochMilli(state[HOURLY_REFILL]));
+    }
+
+    @Override
+    public void readFrom(RateLimitEntry entry, RateLimitQuota quota, long[] state) {
+        state[TOKENS] = Math.min(entry.getTokens(), quota.perMinute());
+        state[LAST_REFILL] = entry.getLastRefillTime().toEpochMilli();
+        state[HOURLY_TOKENS] = Math.min(entry.getHourlyTokens(), quota.perHour());
+        state[HOURLY_REFILL] = entry.getHourlyRefillTime().toEpochMilli();
+    }
+}
@@ -19,6 +19,8 @@ public interface UserService {
 
     void deleteUser(UUID id);
 
+    void revokeSessions(UUID id);
+
     Page<UserResponse> searchUsers(String search, Pageable pageable);
 
     boolean existsByUsername(String username);
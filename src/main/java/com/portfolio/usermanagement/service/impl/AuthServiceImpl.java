@@ -14,32 +14,46 @@ import com.portfolio.usermanagement.exception.ConflictException;
 import com.portfolio.usermanagement.exception.ErrorCode;
 import com.portfolio.usermanagement.repository.RoleRepository;
 import com.portfolio.usermanagement.repository.UserRepository;
+import com.portfolio.usermanagement.security.AccountDetails;
 import com.portfolio.usermanagement.security.AccountLockoutService;
 import com.portfolio.usermanagement.security.RefreshTokenService;
 import com.portfolio.usermanagement.security.jwt.JwtUtils;
+import com.portfolio.usermanagement.security.jwt.ParsedToken;
 import com.portfolio.usermanagement.security.jwt.TokenBlacklistService;
+import com.portfolio.usermanagement.security.jwt.TokenEpochService;
+import com.portfolio.usermanagement.security.ratelimit.ClientAddressResolver;
 import com.portfolio.usermanagement.monitoring.MetricsService;
 import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Date;
-import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Authentication flows.
+ *
+ * Password hashing takes hundreds of milliseconds, so login and register are
+ * not transactional as a whole: hashing runs without a transaction (and
+ * without a pooled connection), and the database work around it is grouped
+ * into short transactions of its own.
+ */
 @Service
-@Transactional
 public class AuthServiceImpl {
 
     @Autowired
@@ -69,104 +83,122 @@ public class AuthServiceImpl {
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private TokenEpochService tokenEpochService;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
-    public AuthResponse register(RegisterRequest request, HttpServletRequest httpRequest) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new ConflictException("Username is already taken", ErrorCode.USERNAME_ALREADY_EXISTS);
-        }
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new ConflictException("Email is already in use", ErrorCode.EMAIL_ALREADY_EXISTS);
-        }
+    @Autowired
+    private ClientAddressResolver clientAddressResolver;
 
-        User user = User.builder()
-                .username(request.getUsername())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .firstName(request.getFirstName())
-                .lastName(request.getLastName())
-                .enabled(true)
-                .accountNonLocked(true)
-                .accountNonExpired(true)
-                .credentialsNonExpired(true)
-                .build();
+    /**
+     * Id of ROLE_USER, resolved on first registration; roles are seeded by
+     * migrations and never renumbered.
+     */
+    private volatile Long userRoleId;
 
-        Role userRole = roleRepository.findByName(Role.RoleName.ROLE_USER)
-                .orElseThrow(() -> new RuntimeException("Role not found"));
-        Set<Role> roles = new HashSet<>();
-        roles.add(userRole);
-        user.setRoles(roles);
+    /**
+     * Register a user with one password hash and one short transaction.
+     *
+     * Duplicates are detected by the unique constraints on username and email
+     * rather than by lookups beforehand, which would also race with concurrent
+     * registrations. The role is granted by its preloaded id, and tokens are
+     * issued from the saved user without authenticating again, so a
+     * registration costs three inserts. The returned user's roles collection
+     * is not populated; the response lists the granted role directly.
+     */
+    public AuthResponse register(RegisterRequest request, HttpServletRequest httpRequest) {
+        // Hash outside any transaction; the password is not verified again afterwards
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+        String ipAddress = clientAddressResolver.resolveText(httpRequest);
+        Role.RoleName roleName = Role.RoleName.ROLE_USER;
+        Long roleId = resolveUserRoleId();
 
-        User savedUser = userRepository.save(user);
+        UserSession registration;
+        try {
+            registration = transactionTemplate.execute(status -> {
+                User user = User.builder()
+                        .username(request.getUsername())
+                        .email(request.getEmail())
+                        .password(passwordHash)
+                        .firstName(request.getFirstName())
+                        .lastName(request.getLastName())
+                        .enabled(true)
+                        .accountNonLocked(true)
+                        .accountNonExpired(true)
+                        .credentialsNonExpired(true)
+                        .build();
+
+                // Flush now so a duplicate fails here, before anything else is written
+                User savedUser = userRepository.saveAndFlush(user);
+                // Granted by id: attaching a Role reference would load it to hash it into the set
+                userRepository.addRole(savedUser.getId(), roleId);
+                RefreshToken refreshToken = refreshTokenService.createInitialRefreshToken(savedUser, ipAddress);
+                return new UserSession(savedUser, refreshToken.getToken());
+            });
+        } catch (DataIntegrityViolationException ex) {
+            throw registrationConflict(ex);
+        }
+        User savedUser = registration.user();
 
         // Record user registration metric
         metricsService.recordUserRegistration();
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+        UserDetails userDetails = org.springframework.security.core.userdetails.User.withUsername(savedUser.getUsername())
+                .password(passwordHash)
+                .authorities(roleName.name())
+                .build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-
-        // Create refresh token
-        String ipAddress = getClientIP(httpRequest);
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(savedUser, ipAddress);
+        String jwt = jwtUtils.generateJwtToken(authentication, savedUser.getId());
 
         return AuthResponse.builder()
                 .token(jwt)
-                .refreshToken(refreshToken.getToken())
-                .user(convertToResponse(savedUser))
+                .refreshToken(registration.refreshToken())
+                .user(convertToResponse(savedUser, Set.of(roleName.name())))
                 .build();
     }
 
+    /**
+     * Log a user in.
+     *
+     * The principal produced by authentication carries the user's id and
+     * profile, so the user is not read again. With lockout state in memory
+     * (the default mode), a login costs the refresh-token limit UPDATE and
+     * its INSERT, besides that (cached) user load.
+     */
     public AuthResponse login(LoginRequest request, HttpServletRequest httpRequest) {
         String username = request.getUsername();
 
         // Check if account is locked due to previous failed attempts
-        if (accountLockoutService.isLocked(username)) {
-            java.time.Duration remainingTime = accountLockoutService.getRemainingLockoutTime(username);
-            long minutesRemaining = remainingTime != null ? remainingTime.toMinutes() : 0;
+        AccountLockoutService.LockoutStatus lockout = accountLockoutService.getStatus(username);
+        if (lockout.locked()) {
+            long minutesRemaining = lockout.remaining() != null ? lockout.remaining().toMinutes() : 0;
             throw new LockedException(
                 String.format("Account is locked due to multiple failed login attempts. Try again in %d minutes.",
                     minutesRemaining)
             );
         }
 
+        Authentication authentication;
         try {
-            // Attempt authentication with provided credentials
-            Authentication authentication = authenticationManager.authenticate(
+            // Attempt authentication with provided credentials (hashing runs outside any transaction)
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(username, request.getPassword()));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
-
-            // Login succeeded - clear any failed attempt tracking
-            accountLockoutService.loginSucceeded(username);
-
-            // Record successful login metric
-            metricsService.recordLoginSuccess(username);
-
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new BadRequestException("User not found"));
-
-            // Create refresh token
-            String ipAddress = getClientIP(httpRequest);
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(user, ipAddress);
-
-            return AuthResponse.builder()
-                    .token(jwt)
-                    .refreshToken(refreshToken.getToken())
-                    .user(convertToResponse(user))
-                    .build();
         } catch (BadCredentialsException ex) {
             // Record failed login attempt for brute force protection
-            accountLockoutService.loginFailed(username);
+            boolean locked = accountLockoutService.loginFailed(username);
 
             // Record failed login metric
             metricsService.recordLoginFailure(username, "bad_credentials");
 
             // Check if this failure triggered an account lockout
-            if (accountLockoutService.isLocked(username)) {
+            if (locked) {
                 metricsService.recordSecurityEvent("account_locked");
                 throw new LockedException("Account locked due to multiple failed login attempts. Try again in 30 minutes.");
             }
@@ -174,6 +206,28 @@ public class AuthServiceImpl {
             // Re-throw the original exception for normal error handling
             throw ex;
         }
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        AccountDetails account = (AccountDetails) authentication.getPrincipal();
+
+        // Login succeeded - clear any failed attempt tracking
+        accountLockoutService.loginSucceeded(username);
+
+        String ipAddress = clientAddressResolver.resolveText(httpRequest);
+        String refreshToken = transactionTemplate.execute(status -> {
+            // Create refresh token; the reference is never loaded, only its id is written
+            User user = userRepository.getReferenceById(account.getId());
+            return refreshTokenService.createRefreshToken(user, ipAddress).getToken();
+        });
+        String jwt = jwtUtils.generateJwtToken(authentication, account.getId());
+
+        // Record successful login metric
+        metricsService.recordLoginSuccess(username);
+
+        return AuthResponse.builder()
+                .token(jwt)
+                .refreshToken(refreshToken)
+                .user(convertToResponse(account))
+                .build();
     }
 
     /**
@@ -182,21 +236,37 @@ public class AuthServiceImpl {
      * @param logoutRequest contains the refresh token to revoke
      * @param accessToken the JWT access token (from Authorization header)
      */
+    @Transactional
     public void logout(LogoutRequest logoutRequest, String accessToken) {
         // Revoke the refresh token
         refreshTokenService.revokeRefreshToken(logoutRequest.getRefreshToken());
 
         // Blacklist the access token (JWT)
         if (accessToken != null) {
-            String jti = jwtUtils.getJtiFromToken(accessToken);
-            long expirationMs = jwtUtils.getExpirationMs(accessToken);
-            Date expiry = new Date(System.currentTimeMillis() + expirationMs);
-            tokenBlacklistService.blacklistToken(jti, expiry);
+            ParsedToken token = jwtUtils.parseToken(accessToken);
+            tokenBlacklistService.blacklistToken(token.jti(), token.expiration());
         }
 
         metricsService.recordSecurityEvent("user_logout");
     }
 
+    /**
+     * Logout user from every device: revokes all of the user's access tokens
+     * with a single epoch update and all of their refresh tokens.
+     *
+     * @param username the authenticated user
+     */
+    @Transactional
+    public void logoutAll(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new BadRequestException("User not found"));
+
+        tokenEpochService.revokeAllTokens(username);
+        refreshTokenService.revokeAllUserTokens(user);
+
+        metricsService.recordSecurityEvent("user_logout_all");
+    }
+
     /**
      * Refresh the access token using a valid refresh token.
      * Implements token rotation for security: old refresh token is revoked,
@@ -206,8 +276,9 @@ public class AuthServiceImpl {
      * @param httpRequest for IP address tracking
      * @return new AuthResponse with new tokens
      */
+    @Transactional
     public AuthResponse refreshToken(RefreshTokenRequest request, HttpServletRequest httpRequest) {
-        String ipAddress = getClientIP(httpRequest);
+        String ipAddress = clientAddressResolver.resolveText(httpRequest);
 
         // Rotate refresh token (verifies, revokes old, creates new)
         RefreshToken newRefreshToken = refreshTokenService.rotateRefreshToken(
@@ -223,7 +294,7 @@ public class AuthServiceImpl {
                 null,
                 userDetails.getAuthorities()
         );
-        String newAccessToken = jwtUtils.generateJwtToken(authentication);
+        String newAccessToken = jwtUtils.generateJwtToken(authentication, user.getId());
 
         metricsService.recordSecurityEvent("token_refresh");
 
@@ -235,20 +306,68 @@ public class AuthServiceImpl {
     }
 
     /**
-     * Extract client IP address from HTTP request.
-     * Checks common proxy headers first, falls back to remote address.
+     * User and refresh token created in one transaction.
      */
-    private String getClientIP(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader != null && !xfHeader.isEmpty()) {
-            // X-Forwarded-For can contain multiple IPs (client, proxy1, proxy2, ...)
-            // Take the first one (original client)
-            return xfHeader.split(",")[0].trim();
+    private record UserSession(User user, String refreshToken) {
+    }
+
+    private Long resolveUserRoleId() {
+        Long roleId = userRoleId;
+        if (roleId == null) {
+            roleId = roleRepository.findByName(Role.RoleName.ROLE_USER)
+                    .orElseThrow(() -> new RuntimeException("Role not found"))
+                    .getId();
+            userRoleId = roleId;
         }
-        return request.getRemoteAddr();
+        return roleId;
+    }
+
+    /**
+     * Translate a unique constraint violation on users into the matching
+     * conflict. Postgres names the constraint (users_username_key,
+     * users_email_key); other databases name the index or column first and
+     * may echo the whole statement after it, so the earliest mention wins.
+     */
+    private RuntimeException registrationConflict(DataIntegrityViolationException ex) {
+        String detail = ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName()
+                : ex.getMostSpecificCause().getMessage();
+        detail = detail != null ? detail.toLowerCase(Locale.ROOT) : "";
+        int username = detail.indexOf("username");
+        int email = detail.indexOf("email");
+        if (username >= 0 && (email < 0 || username < email)) {
+            return new ConflictException("Username is already taken", ErrorCode.USERNAME_ALREADY_EXISTS);
+        }
+        if (email >= 0) {
+            return new ConflictException("Email is already in use", ErrorCode.EMAIL_ALREADY_EXISTS);
+        }
+        return ex;
     }
 
     private UserResponse convertToResponse(User user) {
+        return convertToResponse(user, user.getRoles().stream()
+                .map(role -> role.getName().name())
+                .collect(Collectors.toSet()));
+    }
+
+    private UserResponse convertToResponse(AccountDetails account) {
+        return UserResponse.builder()
+                .id(account.getId())
+                .username(account.getUsername())
+                .email(account.getEmail())
+                .firstName(account.getFirstName())
+                .lastName(account.getLastName())
+                .enabled(account.isEnabled())
+                .roles(account.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toSet()))
+                .createdAt(account.getCreatedAt())
+                .updatedAt(account.getUpdatedAt())
+                .build();
+    }
+
+    private UserResponse convertToResponse(User user, Set<String> roles) {
         return UserResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
@@ -256,9 +375,7 @@ public class AuthServiceImpl {
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
                 .enabled(user.getEnabled())
-                .roles(user.getRoles().stream()
-                        .map(role -> role.getName().name())
-                        .collect(Collectors.toSet()))
+                .roles(roles)
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
                 .build();
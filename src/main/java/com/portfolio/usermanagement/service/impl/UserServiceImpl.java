@@ -4,8 +4,12 @@ import com.portfolio.usermanagement.dto.response.UserResponse;
 import com.portfolio.usermanagement.entity.User;
 import com.portfolio.usermanagement.exception.ResourceNotFoundException;
 import com.portfolio.usermanagement.repository.UserRepository;
+import com.portfolio.usermanagement.security.RefreshTokenService;
+import com.portfolio.usermanagement.security.UserDetailsChangedEvent;
+import com.portfolio.usermanagement.security.jwt.TokenEpochService;
 import com.portfolio.usermanagement.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,6 +25,15 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TokenEpochService tokenEpochService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Override
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(Pageable pageable) {
@@ -53,6 +66,7 @@ public class UserServiceImpl implements UserService {
         user.setEmail(userDetails.getEmail());
 
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserDetailsChangedEvent(user.getUsername()));
         return convertToResponse(updatedUser);
     }
 
@@ -60,7 +74,18 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(UUID id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        // Stateless tokens never read the user again; revoke them where the delete cannot reach
+        tokenEpochService.revokeDeletedUser(user.getUsername());
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserDetailsChangedEvent(user.getUsername()));
+    }
+
+    @Override
+    public void revokeSessions(UUID id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        tokenEpochService.revokeAllTokens(user.getUsername());
+        refreshTokenService.revokeAllUserTokens(user);
     }
 
     @Override
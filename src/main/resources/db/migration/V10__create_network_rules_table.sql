@@ -0,0 +1,21 @@
+-- Create table for network (CIDR) rate limit rules
+-- Loaded into an in-memory prefix trie and reloaded periodically
+
+CREATE TABLE network_rules (
+    id BIGSERIAL PRIMARY KEY,
+    cidr VARCHAR(49) NOT NULL UNIQUE,
+    action VARCHAR(10) NOT NULL,
+    policy VARCHAR(100),
+    description VARCHAR(255),
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_network_rule_action CHECK (action IN ('ALLOW', 'DENY', 'LIMIT')),
+    CONSTRAINT chk_network_rule_policy CHECK (action <> 'LIMIT' OR policy IS NOT NULL)
+);
+
+-- Comments for documentation
+COMMENT ON TABLE network_rules IS 'Allowlist, denylist and per-network rate limits by CIDR prefix';
+COMMENT ON COLUMN network_rules.cidr IS 'IPv4 or IPv6 prefix, e.g. 10.0.0.0/8 or 2001:db8::/32';
+COMMENT ON COLUMN network_rules.action IS 'ALLOW bypasses rate limiting, DENY rejects, LIMIT applies the named policy to the whole network';
+COMMENT ON COLUMN network_rules.policy IS 'Rate limit policy name used by LIMIT rules';
+COMMENT ON COLUMN network_rules.enabled IS 'Disabled rules are ignored on reload';
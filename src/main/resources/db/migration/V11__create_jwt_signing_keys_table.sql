@@ -0,0 +1,25 @@
+-- Create table for asymmetric JWT signing keys
+-- Shared by all nodes; new keys are published ahead of activation and kept until their tokens expire
+
+CREATE TABLE jwt_signing_keys (
+    kid VARCHAR(64) PRIMARY KEY,
+    algorithm VARCHAR(10) NOT NULL,
+    public_key TEXT NOT NULL,
+    private_key TEXT NOT NULL,
+    activates_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_jwt_signing_key_algorithm CHECK (algorithm IN ('ES256', 'EDDSA')),
+    CONSTRAINT chk_jwt_signing_key_window CHECK (expires_at > activates_at)
+);
+
+-- Indexes for performance optimization
+CREATE INDEX idx_jwt_signing_keys_expires ON jwt_signing_keys(expires_at);
+
+-- Comments for documentation
+COMMENT ON TABLE jwt_signing_keys IS 'Key ring for ES256/EdDSA access tokens, published at /.well-known/jwks.json';
+COMMENT ON COLUMN jwt_signing_keys.kid IS 'RFC 7638 thumbprint of the public key, sent as the JWT kid header';
+COMMENT ON COLUMN jwt_signing_keys.public_key IS 'Base64 X.509 SubjectPublicKeyInfo';
+COMMENT ON COLUMN jwt_signing_keys.private_key IS 'Base64 PKCS#8 private key, AES-GCM encrypted with a key derived from the JWT secret';
+COMMENT ON COLUMN jwt_signing_keys.activates_at IS 'When nodes start signing with the key; verifiers see it in the JWKS before then';
+COMMENT ON COLUMN jwt_signing_keys.expires_at IS 'When the key leaves the JWKS; every token it signed has expired by then';
@@ -0,0 +1,3 @@
+-- Index for incremental blacklist sync: every node polls for rows blacklisted since its last poll
+
+CREATE INDEX idx_blacklisted_at ON blacklisted_tokens(blacklisted_at);
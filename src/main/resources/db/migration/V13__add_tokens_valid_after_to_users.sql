@@ -0,0 +1,9 @@
+-- Per-user revocation epoch: access tokens issued before it are rejected
+-- Revoking every session of a user is a single-row write instead of one blacklist row per token
+
+ALTER TABLE users ADD COLUMN tokens_valid_after TIMESTAMP;
+
+-- Index for incremental epoch sync: every node polls for epochs set since its last poll
+CREATE INDEX idx_user_tokens_valid_after ON users(tokens_valid_after);
+
+COMMENT ON COLUMN users.tokens_valid_after IS 'Access tokens issued at or before this time are revoked';
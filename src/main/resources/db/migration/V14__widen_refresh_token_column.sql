@@ -0,0 +1,5 @@
+-- Refresh tokens are now 256-bit base64url strings (43 characters) instead of UUIDs
+
+ALTER TABLE refresh_tokens ALTER COLUMN token TYPE VARCHAR(64);
+
+COMMENT ON COLUMN refresh_tokens.token IS 'Random refresh token string (base64url)';
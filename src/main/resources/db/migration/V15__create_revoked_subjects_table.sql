@@ -0,0 +1,17 @@
+-- Revocation epochs of deleted users
+-- users.tokens_valid_after disappears with the row, but the user's access tokens stay valid until they expire
+
+CREATE TABLE revoked_subjects (
+    username VARCHAR(50) PRIMARY KEY,
+    tokens_valid_after TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Index for incremental epoch sync
+CREATE INDEX idx_revoked_subjects_valid_after ON revoked_subjects(tokens_valid_after);
+
+-- Index for cleanup once no token the epoch could reject is still valid
+CREATE INDEX idx_revoked_subjects_expires_at ON revoked_subjects(expires_at);
+
+COMMENT ON TABLE revoked_subjects IS 'Access tokens of deleted users, kept until the longest token lifetime has passed';
+COMMENT ON COLUMN revoked_subjects.tokens_valid_after IS 'Access tokens issued at or before this time are revoked';
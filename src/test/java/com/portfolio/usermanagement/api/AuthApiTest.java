@@ -144,6 +144,41 @@ class AuthApiTest {
             .body("user.username", equalTo("logintest"));
     }
 
+    @Test
+    void shouldIgnoreForgedForwardedForOnLogin() {
+        RegisterRequest registerRequest = RegisterRequest.builder()
+                .username("forwarded")
+                .email("forwarded@example.com")
+                .password("Password123!")
+                .firstName("Forwarded")
+                .lastName("Test")
+                .build();
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(registerRequest)
+        .when()
+            .post("/auth/register")
+        .then()
+            .statusCode(201);
+
+        LoginRequest loginRequest = LoginRequest.builder()
+                .username("forwarded")
+                .password("Password123!")
+                .build();
+
+        // Longer than refresh_tokens.created_from_ip; the test client is not a trusted proxy
+        given()
+            .contentType(ContentType.JSON)
+            .header("X-Forwarded-For", "1".repeat(100) + ", 10.0.0.5")
+            .body(loginRequest)
+        .when()
+            .post("/auth/login")
+        .then()
+            .statusCode(200)
+            .body("refreshToken", notNullValue());
+    }
+
     @Test
     void shouldNotLoginWithInvalidCredentials() {
         LoginRequest loginRequest = LoginRequest.builder()
@@ -0,0 +1,112 @@
+package com.portfolio.usermanagement.benchmark;
+
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.security.jwt.JwtUtils;
+import com.portfolio.usermanagement.security.jwt.ParsedToken;
+import com.portfolio.usermanagement.security.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost of the authentication filter.
+ *
+ * {@code perRequestParsing} reproduces the previous filter: validate, read
+ * the jti and read the subject, each rebuilding the key and parser and
+ * verifying the HMAC again. {@code singleParse} verifies once, and
+ * {@code cachedParse} serves a repeat token from the verified-token cache.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.portfolio.usermanagement.benchmark.JwtParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET =
+            "benchmark-secret-key-that-is-long-enough-for-hs512-signatures-0123456789";
+
+    private JwtUtils jwtUtils;
+    private JwtUtils cachingJwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = newJwtUtils();
+        cachingJwtUtils = newJwtUtils();
+        ReflectionTestUtils.setField(cachingJwtUtils, "verifiedTokenCache",
+                new VerifiedTokenCache(new MetricsService(new SimpleMeterRegistry()), true, 1000));
+
+        User user = (User) User.withUsername("benchmark").password("n/a").roles("USER").build();
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Benchmark
+    public void perRequestParsing(Blackhole blackhole) {
+        parseWithNewParser();
+        blackhole.consume(parseWithNewParser().get("jti", String.class));
+        blackhole.consume(parseWithNewParser().getSubject());
+    }
+
+    @Benchmark
+    public void singleParse(Blackhole blackhole) {
+        ParsedToken parsed = jwtUtils.parseToken(token);
+        blackhole.consume(parsed.jti());
+        blackhole.consume(parsed.subject());
+    }
+
+    @Benchmark
+    public void cachedParse(Blackhole blackhole) {
+        ParsedToken parsed = cachingJwtUtils.parseToken(token);
+        blackhole.consume(parsed.jti());
+        blackhole.consume(parsed.subject());
+    }
+
+    private static JwtUtils newJwtUtils() {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", 3_600_000L);
+        utils.validateSecret();
+        return utils;
+    }
+
+    private Claims parseWithNewParser() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParsingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.portfolio.usermanagement.benchmark;
+
+import com.portfolio.usermanagement.security.SecureIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token identifier generation under a login storm.
+ *
+ * {@code uuid*} is the previous {@code UUID.randomUUID().toString()}, which
+ * shares one SecureRandom across threads; {@code secureId*} draws from the
+ * per-thread buffers of {@link SecureIdGenerator}. The single-thread pair
+ * shows raw cost, the 8-thread pair shows contention.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.portfolio.usermanagement.benchmark.SecureIdBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecureIdBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public String uuidSingleThread() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String secureIdSingleThread() {
+        return SecureIdGenerator.jti();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String uuidContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String secureIdContended() {
+        return SecureIdGenerator.jti();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SecureIdBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
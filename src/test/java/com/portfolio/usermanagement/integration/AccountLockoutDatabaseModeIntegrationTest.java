@@ -0,0 +1,88 @@
+package com.portfolio.usermanagement.integration;
+
+import com.portfolio.usermanagement.security.AccountLockoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent failed logins against one new username, counted by the upsert
+ * of database mode: none may be lost.
+ */
+@SpringBootTest(properties = "app.security.lockout.mode=database")
+@Testcontainers
+@ActiveProfiles("test")
+class AccountLockoutDatabaseModeIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int FAILURES_PER_THREAD = 3;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private AccountLockoutService accountLockoutService;
+
+    @Test
+    void loginFailed_ShouldCountEveryConcurrentFailure() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < FAILURES_PER_THREAD; j++) {
+                        accountLockoutService.loginFailed("stuffed");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(accountLockoutService.getFailedAttempts("stuffed")).isEqualTo(THREADS * FAILURES_PER_THREAD);
+        assertThat(accountLockoutService.isLocked("stuffed")).isTrue();
+    }
+
+    @Test
+    void loginSucceeded_ShouldClearFailures() {
+        accountLockoutService.loginFailed("recovered");
+        accountLockoutService.loginFailed("recovered");
+
+        accountLockoutService.loginSucceeded("recovered");
+
+        assertThat(accountLockoutService.getFailedAttempts("recovered")).isZero();
+        assertThat(accountLockoutService.isLocked("recovered")).isFalse();
+    }
+}
@@ -0,0 +1,120 @@
+package com.portfolio.usermanagement.integration;
+
+import com.portfolio.usermanagement.dto.request.LoginRequest;
+import com.portfolio.usermanagement.dto.request.RegisterRequest;
+import com.portfolio.usermanagement.service.impl.AuthServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Statement budgets of the authentication flows. Each call is measured on
+ * the test thread, so an extra query in register or login fails the build.
+ */
+@SpringBootTest
+@Testcontainers
+@ActiveProfiles("test")
+class AuthStatementCountIntegrationTest {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private AuthServiceImpl authService;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void register_ShouldInsertUserRoleAndRefreshToken() {
+        register("budget_warmup");
+
+        SqlStatementCounter.reset();
+        register("budget_register");
+
+        // users, user_roles, refresh_tokens
+        assertThat(SqlStatementCounter.statements()).hasSize(3);
+    }
+
+    @Test
+    void login_WithUncachedUser_ShouldLoadUserOnce() {
+        register("budget_cold");
+
+        SqlStatementCounter.reset();
+        login("budget_cold", PASSWORD);
+
+        // user with roles and profile, token limit UPDATE, INSERT
+        assertThat(SqlStatementCounter.statements()).hasSize(3);
+    }
+
+    @Test
+    void login_WithCachedUser_ShouldRunTwoStatements() {
+        register("budget_warm");
+        login("budget_warm", PASSWORD);
+
+        SqlStatementCounter.reset();
+        login("budget_warm", PASSWORD);
+
+        // token limit UPDATE, INSERT
+        assertThat(SqlStatementCounter.statements()).hasSize(2);
+    }
+
+    @Test
+    void login_AfterFailedAttempt_ShouldNotTouchLockoutTable() {
+        register("budget_failed");
+        assertThatThrownBy(() -> login("budget_failed", "wrong-password"))
+                .isInstanceOf(BadCredentialsException.class);
+
+        SqlStatementCounter.reset();
+        login("budget_failed", PASSWORD);
+
+        // failures below the threshold are only counted in memory
+        assertThat(SqlStatementCounter.statements()).hasSize(2);
+    }
+
+    private void register(String username) {
+        authService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password(PASSWORD)
+                .firstName("Budget")
+                .lastName("Test")
+                .build(), new MockHttpServletRequest());
+    }
+
+    private void login(String username, String password) {
+        authService.login(LoginRequest.builder()
+                .username(username)
+                .password(password)
+                .build(), new MockHttpServletRequest());
+    }
+}
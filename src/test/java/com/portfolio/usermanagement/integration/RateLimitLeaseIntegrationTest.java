@@ -0,0 +1,81 @@
+package com.portfolio.usermanagement.integration;
+
+import com.portfolio.usermanagement.UserManagementApplication;
+import com.portfolio.usermanagement.security.RateLimitService;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicy;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicyResolver;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two application nodes against one database in leased mode and checks
+ * that they enforce a single shared limit.
+ */
+@Testcontainers
+class RateLimitLeaseIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(UserManagementApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "app.rate-limit.mode=leased",
+                        "app.rate-limit.lease.max-size=8",
+                        "app.rate-limit.lease.ttl-ms=60000",
+                        "app.rate-limit.heavy-hitters.enabled=false")
+                .run();
+    }
+
+    @Test
+    void leasedMode_ShouldShareOneLimitAcrossNodes() {
+        RateLimitService serviceA = nodeA.getBean(RateLimitService.class);
+        RateLimitService serviceB = nodeB.getBean(RateLimitService.class);
+        RateLimitPolicy policy = nodeA.getBean(RateLimitPolicyResolver.class).getDefaultPolicy();
+        int perMinute = policy.getQuota().perMinute();
+
+        int allowed = 0;
+        for (int i = 0; i < perMinute * 2; i++) {
+            RateLimitService node = i % 2 == 0 ? serviceA : serviceB;
+            if (node.checkRateLimit("198.51.100.10", policy).isAllowed()) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(perMinute);
+    }
+}
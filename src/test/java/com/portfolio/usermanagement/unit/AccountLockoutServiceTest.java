@@ -0,0 +1,147 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.repository.LoginAttemptRepository;
+import com.portfolio.usermanagement.repository.LoginAttemptRepository.ActiveLock;
+import com.portfolio.usermanagement.repository.LoginAttemptRepository.FailedAttempts;
+import com.portfolio.usermanagement.security.AccountLockoutMode;
+import com.portfolio.usermanagement.security.AccountLockoutService;
+import com.portfolio.usermanagement.security.UserDetailsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class AccountLockoutServiceTest {
+
+    private LoginAttemptRepository loginAttemptRepository;
+    private AccountLockoutService accountLockoutService;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptRepository = mock(LoginAttemptRepository.class);
+        when(loginAttemptRepository.findActiveLocks(any(Instant.class))).thenReturn(List.of());
+        accountLockoutService = new AccountLockoutService(
+                loginAttemptRepository, mock(ApplicationEventPublisher.class), AccountLockoutMode.MEMORY, 0L);
+        accountLockoutService.initialize();
+    }
+
+    @Test
+    void loginFailed_ShouldWriteOnlyTheLock() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(accountLockoutService.loginFailed("alice")).isFalse();
+        }
+        assertThat(accountLockoutService.isLocked("alice")).isFalse();
+        assertThat(accountLockoutService.getFailedAttempts("alice")).isEqualTo(4);
+        verify(loginAttemptRepository, never()).upsertLock(any(), anyInt(), any(), any());
+
+        assertThat(accountLockoutService.loginFailed("alice")).isTrue();
+
+        ArgumentCaptor<Instant> lockUntil = ArgumentCaptor.forClass(Instant.class);
+        verify(loginAttemptRepository).upsertLock(eq("alice"), eq(5), any(Instant.class), lockUntil.capture());
+        assertThat(lockUntil.getValue()).isAfter(Instant.now());
+        assertThat(accountLockoutService.isLocked("alice")).isTrue();
+        assertThat(accountLockoutService.getRemainingLockoutTime("alice"))
+                .isGreaterThan(Duration.ofMinutes(29));
+        assertThat(accountLockoutService.isLocked("bob")).isFalse();
+    }
+
+    @Test
+    void loginSucceeded_ShouldClearFailuresWithoutQueries() {
+        accountLockoutService.loginFailed("alice");
+        accountLockoutService.loginFailed("alice");
+
+        accountLockoutService.loginSucceeded("alice");
+        accountLockoutService.loginSucceeded("bob");
+
+        assertThat(accountLockoutService.getFailedAttempts("alice")).isZero();
+        assertThat(accountLockoutService.getStatus("alice").locked()).isFalse();
+        verify(loginAttemptRepository).findActiveLocks(any(Instant.class));
+        verifyNoMoreInteractions(loginAttemptRepository);
+    }
+
+    @Test
+    void sync_ShouldApplyLocksAndUnlocksFromOtherNodes() throws InterruptedException {
+        when(loginAttemptRepository.findActiveLocks(any(Instant.class)))
+                .thenReturn(List.of(activeLock("carol", Instant.now().plus(Duration.ofMinutes(10)))));
+        accountLockoutService.sync();
+        assertThat(accountLockoutService.isLocked("carol")).isTrue();
+
+        // Row deleted by a manual unlock elsewhere
+        when(loginAttemptRepository.findActiveLocks(any(Instant.class))).thenReturn(List.of());
+        Thread.sleep(5);
+        accountLockoutService.sync();
+        assertThat(accountLockoutService.isLocked("carol")).isFalse();
+    }
+
+    @Test
+    void unlock_ShouldDeleteTheLock() {
+        for (int i = 0; i < 5; i++) {
+            accountLockoutService.loginFailed("alice");
+        }
+
+        accountLockoutService.unlock("alice");
+
+        verify(loginAttemptRepository).deleteByUsername("alice");
+        assertThat(accountLockoutService.isLocked("alice")).isFalse();
+    }
+
+    @Test
+    void databaseMode_ShouldCountWithOneUpsertAndReportTheLockOnce() {
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        AccountLockoutService databaseLockout = new AccountLockoutService(
+                loginAttemptRepository, eventPublisher, AccountLockoutMode.DATABASE, 0L);
+        when(loginAttemptRepository.recordFailedAttempt(eq("dave"), any(), any(), any(), eq(5)))
+                .thenReturn(failedAttempts(4, false), failedAttempts(5, true), failedAttempts(6, true));
+
+        assertThat(databaseLockout.loginFailed("dave")).isFalse();
+        assertThat(databaseLockout.loginFailed("dave")).isTrue();
+        assertThat(databaseLockout.loginFailed("dave")).isTrue();
+
+        verify(loginAttemptRepository, times(3)).recordFailedAttempt(eq("dave"), any(), any(), any(), eq(5));
+        verify(loginAttemptRepository, never()).findByUsername(any());
+        verify(eventPublisher).publishEvent(new UserDetailsChangedEvent("dave"));
+    }
+
+    private FailedAttempts failedAttempts(int attempts, boolean locked) {
+        return new FailedAttempts() {
+            @Override
+            public Integer getAttempts() {
+                return attempts;
+            }
+
+            @Override
+            public Boolean getLocked() {
+                return locked;
+            }
+        };
+    }
+
+    private ActiveLock activeLock(String username, Instant lockUntil) {
+        return new ActiveLock() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public Instant getLockUntil() {
+                return lockUntil;
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.security.CalibratedPasswordEncoders;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedPasswordEncodersTest {
+
+    private static final String PASSWORD = "Password123!x";
+
+    @Test
+    void create_ShouldVerifyLegacyHashesAndFlagThemForRehash() {
+        PasswordEncoder bcrypt = CalibratedPasswordEncoders.create("bcrypt", false, 250, 5, 1024, 2);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertThat(bcrypt.matches(PASSWORD, legacy)).isTrue();
+        assertThat(bcrypt.upgradeEncoding(legacy)).isTrue();
+
+        String current = bcrypt.encode(PASSWORD);
+        assertThat(current).startsWith("{bcrypt}");
+        assertThat(bcrypt.upgradeEncoding(current)).isFalse();
+    }
+
+    @Test
+    void create_ShouldMoveBcryptHashesToArgon2() {
+        PasswordEncoder bcrypt = CalibratedPasswordEncoders.create("bcrypt", false, 250, 4, 1024, 2);
+        PasswordEncoder argon2 = CalibratedPasswordEncoders.create("argon2", false, 250, 4, 1024, 2);
+        String bcryptHash = bcrypt.encode(PASSWORD);
+
+        assertThat(argon2.matches(PASSWORD, bcryptHash)).isTrue();
+        assertThat(argon2.upgradeEncoding(bcryptHash)).isTrue();
+
+        String argon2Hash = argon2.encode(PASSWORD);
+        assertThat(argon2Hash).startsWith("{argon2}$argon2id$");
+        assertThat(argon2.matches(PASSWORD, argon2Hash)).isTrue();
+        assertThat(argon2.upgradeEncoding(argon2Hash)).isFalse();
+    }
+}
@@ -0,0 +1,57 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.security.ratelimit.CidrBlock;
+import com.portfolio.usermanagement.security.ratelimit.CidrTrie;
+import com.portfolio.usermanagement.security.ratelimit.IpAddress;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CidrTrieTest {
+
+    @Test
+    void lookup_ShouldReturnLongestMatchingPrefix() {
+        Map<CidrBlock, String> rules = new LinkedHashMap<>();
+        rules.put(CidrBlock.parse("10.0.0.0/8"), "internal");
+        rules.put(CidrBlock.parse("10.1.2.0/24"), "office");
+        rules.put(CidrBlock.parse("10.1.2.3"), "host");
+        rules.put(CidrBlock.parse("10.128.0.0/9"), "upper");
+        rules.put(CidrBlock.parse("2001:db8::/32"), "v6");
+        CidrTrie<String> trie = CidrTrie.build(rules);
+
+        assertThat(trie.lookup(IpAddress.parse("10.9.9.9"))).isEqualTo("internal");
+        assertThat(trie.lookup(IpAddress.parse("10.1.2.200"))).isEqualTo("office");
+        assertThat(trie.lookup(IpAddress.parse("10.1.2.3"))).isEqualTo("host");
+        assertThat(trie.lookup(IpAddress.parse("10.200.0.1"))).isEqualTo("upper");
+        assertThat(trie.lookup(IpAddress.parse("2001:db8:1::5"))).isEqualTo("v6");
+        assertThat(trie.lookup(IpAddress.parse("11.0.0.1"))).isNull();
+        assertThat(trie.lookup(IpAddress.parse("2001:db9::1"))).isNull();
+    }
+
+    @Test
+    void lookup_ShouldMatchEverythingWithDefaultRoute() {
+        Map<CidrBlock, String> rules = new LinkedHashMap<>();
+        rules.put(CidrBlock.parse("192.168.1.0/24"), "lan");
+        rules.put(CidrBlock.parse("::/0"), "any");
+        CidrTrie<String> trie = CidrTrie.build(rules);
+
+        assertThat(trie.lookup(IpAddress.parse("192.168.1.7"))).isEqualTo("lan");
+        assertThat(trie.lookup(IpAddress.parse("8.8.8.8"))).isEqualTo("any");
+    }
+
+    @Test
+    void parse_ShouldNormaliseHostBitsAndRejectInvalidPrefixes() {
+        CidrBlock block = CidrBlock.parse("10.1.2.3/16");
+
+        assertThat(block.toString()).isEqualTo("10.1.0.0/16");
+        assertThat(block.contains(IpAddress.parse("10.1.255.1"))).isTrue();
+        assertThat(block.contains(IpAddress.parse("10.2.0.1"))).isFalse();
+
+        assertThatThrownBy(() -> CidrBlock.parse("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CidrBlock.parse("not-an-ip/8")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
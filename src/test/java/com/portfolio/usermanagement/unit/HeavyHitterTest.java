@@ -0,0 +1,78 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.security.ratelimit.CountMinSketch;
+import com.portfolio.usermanagement.security.ratelimit.HeavyHitterDetector;
+import com.portfolio.usermanagement.security.ratelimit.SpaceSavingTopK;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class HeavyHitterTest {
+
+    @Test
+    void countMinSketch_ShouldNeverUndercountAndDecayByHalf() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (int i = 0; i < 5000; i++) {
+            sketch.add("10.0.0." + (i % 250), 1);
+        }
+        for (int i = 0; i < 500; i++) {
+            sketch.add("203.0.113.7", 2);
+        }
+
+        assertThat(sketch.estimate("203.0.113.7")).isBetween(1000L, 1100L);
+        assertThat(sketch.estimate("10.0.0.1")).isGreaterThanOrEqualTo(20L);
+
+        sketch.decay();
+        assertThat(sketch.estimate("203.0.113.7")).isBetween(500L, 550L);
+    }
+
+    @Test
+    void spaceSavingTopK_ShouldKeepHeaviestKeysWithErrorBounds() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(2);
+        topK.offer("a", 10, 10);
+        topK.offer("b", 40, 40);
+        assertThat(topK.offer("c", 20, 20)).isEqualTo(20);
+        assertThat(topK.offer("d", 5, 5)).isZero();
+        assertThat(topK.offer("a", 15, 15)).isZero();
+
+        assertThat(topK.snapshot()).containsExactly(
+                new SpaceSavingTopK.Entry("b", 40, 0),
+                new SpaceSavingTopK.Entry("c", 30, 10));
+
+        topK.decay(16);
+        assertThat(topK.snapshot()).containsExactly(new SpaceSavingTopK.Entry("b", 20, 0));
+    }
+
+    @Test
+    void detector_ShouldNotBlockUniformTrafficThatSaturatesTheSketch() {
+        HeavyHitterDetector detector = new HeavyHitterDetector(
+                mock(MetricsService.class), true, 100, 60000, 20, 4, 64, 1);
+
+        for (int round = 0; round < 3; round++) {
+            for (int client = 0; client < 5000; client++) {
+                assertThat(detector.recordAndCheck("10.1." + (client / 256) + "." + (client % 256), 1)).isFalse();
+            }
+        }
+
+        boolean blocked = false;
+        for (int i = 0; i < 2000 && !blocked; i++) {
+            blocked = detector.recordAndCheck("203.0.113.7", 1);
+        }
+        assertThat(blocked).isTrue();
+        assertThat(detector.getTopOffenders())
+                .filteredOn(HeavyHitterDetector.Offender::blocked)
+                .extracting(HeavyHitterDetector.Offender::clientKey)
+                .containsExactly("203.0.113.7");
+    }
+
+    @Test
+    void detector_ShouldRejectTrafficTheSketchCannotBeSizedFor() {
+        assertThatThrownBy(() -> new HeavyHitterDetector(
+                mock(MetricsService.class), true, 4, 60000, 20, 4, 4096, 1_000_000_000L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("raise block-threshold");
+    }
+}
@@ -0,0 +1,81 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.security.jwt.JwtUtils;
+import com.portfolio.usermanagement.security.jwt.ParsedToken;
+import com.portfolio.usermanagement.security.jwt.TokenUserDetails;
+import com.portfolio.usermanagement.security.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "unit-test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCache",
+                new VerifiedTokenCache(new MetricsService(new SimpleMeterRegistry()), true, 100));
+        jwtUtils.validateSecret();
+
+        User user = (User) User.withUsername("alice").password("n/a").roles("USER").build();
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void parseToken_ShouldExposeClaimsAndServeRepeatsFromCache() {
+        ParsedToken first = jwtUtils.parseToken(token);
+
+        assertThat(first.subject()).isEqualTo("alice");
+        assertThat(first.jti()).isNotBlank();
+        assertThat(first.remainingMs()).isPositive();
+        assertThat(jwtUtils.parseToken(token)).isSameAs(first);
+    }
+
+    @Test
+    void parseToken_ShouldStillRejectTamperedTokensAfterCaching() {
+        jwtUtils.parseToken(token);
+        int index = token.length() - 10;
+        char original = token.charAt(index);
+        String tampered = token.substring(0, index) + (original == 'A' ? 'B' : 'A') + token.substring(index + 1);
+
+        assertThatThrownBy(() -> jwtUtils.parseToken(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void statelessToken_ShouldCarryAuthoritiesUserIdAndStatus() {
+        ReflectionTestUtils.setField(jwtUtils, "statelessEnabled", true);
+        UUID id = UUID.randomUUID();
+        User user = (User) User.withUsername("bob").password("n/a").roles("USER", "ADMIN").accountLocked(true).build();
+        String stateless = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()), id);
+
+        ParsedToken parsed = jwtUtils.parseToken(stateless);
+        TokenUserDetails principal = TokenUserDetails.fromToken(parsed);
+
+        assertThat(jwtUtils.parseToken(token).hasAuthorities()).isFalse();
+        assertThat(parsed.hasAuthorities()).isTrue();
+        assertThat(principal.getId()).isEqualTo(id);
+        assertThat(principal.getUsername()).isEqualTo("bob");
+        assertThat(principal.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(principal.isEnabled()).isTrue();
+        assertThat(principal.isAccountNonLocked()).isFalse();
+    }
+}
@@ -0,0 +1,62 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.security.ratelimit.IpAddress;
+import com.portfolio.usermanagement.security.ratelimit.OffHeapBucketTable;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitQuota;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.TokenBucketAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapBucketTableTest {
+
+    private static final RateLimitQuota QUOTA = new RateLimitQuota(3, 100);
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void parse_ShouldHandleIpv4Ipv6AndForwardedForLists() {
+        assertThat(IpAddress.parseFirst(" 203.0.113.7 , 10.0.0.1")).isEqualTo(IpAddress.ofIpv4(0xcb007107));
+        assertThat(IpAddress.parse("::ffff:203.0.113.7")).isEqualTo(IpAddress.ofIpv4(0xcb007107));
+        assertThat(IpAddress.parse("2001:db8::1")).isEqualTo(new IpAddress(0x20010db800000000L, 1));
+        assertThat(IpAddress.parse("[fe80::1%eth0]")).isEqualTo(new IpAddress(0xfe80000000000000L, 1));
+        assertThat(IpAddress.parse("::")).isEqualTo(new IpAddress(0, 0));
+
+        assertThat(IpAddress.parse("2001:db8::1").toString()).isEqualTo("2001:db8::1");
+        assertThat(IpAddress.parse("203.0.113.7").toString()).isEqualTo("203.0.113.7");
+
+        assertThat(IpAddress.parse("256.0.0.1")).isNull();
+        assertThat(IpAddress.parse("1.2.3")).isNull();
+        assertThat(IpAddress.parse("1::2::3")).isNull();
+        assertThat(IpAddress.parse("unknown")).isNull();
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateStatePerAddressAndPolicy() {
+        OffHeapBucketTable table = new OffHeapBucketTable(new TokenBucketAlgorithm(), 1024, 16);
+        IpAddress a = IpAddress.parse("198.51.100.1");
+        IpAddress b = IpAddress.parse("2001:db8::2");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(table.tryAcquire(a.high(), a.low(), 0, QUOTA, 1, START)).isGreaterThanOrEqualTo(0);
+        }
+        assertThat(table.tryAcquire(a.high(), a.low(), 0, QUOTA, 1, START)).isEqualTo(-1);
+        assertThat(table.tryAcquire(a.high(), a.low(), 1, QUOTA, 1, START)).isEqualTo(2);
+        assertThat(table.tryAcquire(b.high(), b.low(), 0, QUOTA, 1, START)).isEqualTo(2);
+        assertThat(table.tryAcquire(a.high(), a.low(), 0, QUOTA, 1, START + 60_000)).isEqualTo(2);
+    }
+
+    @Test
+    void tryAcquire_ShouldEvictLeastRecentlyUsedWhenFull() {
+        OffHeapBucketTable table = new OffHeapBucketTable(new TokenBucketAlgorithm(), 8, 1);
+
+        for (int i = 0; i < 16; i++) {
+            table.tryAcquire(0, i, 0, QUOTA, 1, START + i);
+        }
+
+        assertThat(table.capacity()).isEqualTo(8);
+        assertThat(table.evictions()).isEqualTo(8);
+        // Most recent client kept its state, the oldest one starts over
+        assertThat(table.tryAcquire(0, 15, 0, QUOTA, 1, START + 20)).isEqualTo(1);
+        assertThat(table.tryAcquire(0, 0, 0, QUOTA, 1, START + 20)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,48 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.repository.RateLimitRepository;
+import com.portfolio.usermanagement.security.ratelimit.QuotaLeaseManager;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitQuota;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuotaLeaseManagerTest {
+
+    @Test
+    void renew_ShouldReturnLeftoversWithTheTimeTheyWereLeased() throws InterruptedException {
+        RateLimitRepository repository = mock(RateLimitRepository.class);
+        when(repository.consumeTokens(any(), anyInt(), anyInt(), anyInt(), any(), any(), any()))
+                .thenReturn(Optional.of(50));
+        QuotaLeaseManager leaseManager = new QuotaLeaseManager(repository);
+        ReflectionTestUtils.setField(leaseManager, "maxLeaseSize", 20);
+        ReflectionTestUtils.setField(leaseManager, "leaseTtlMs", 60000L);
+        RateLimitQuota quota = new RateLimitQuota(60, 1000);
+
+        leaseManager.consume("default:10.0.0.1", quota, 2);
+        // Leases 4 tokens and keeps 2
+        leaseManager.consume("default:10.0.0.1", quota, 2);
+        Thread.sleep(5);
+        // 2 left is not enough: leases 8 more, keeps 2 + 5
+        leaseManager.consume("default:10.0.0.1", quota, 3);
+
+        ArgumentCaptor<Instant> leasedAt = ArgumentCaptor.forClass(Instant.class);
+        verify(repository, times(3)).consumeTokens(eq("default:10.0.0.1"), anyInt(), eq(60), eq(1000),
+                leasedAt.capture(), any(), any());
+
+        leaseManager.returnAllLeases();
+
+        verify(repository).returnTokens("default:10.0.0.1", 7, 60, 1000, leasedAt.getAllValues().get(1));
+    }
+}
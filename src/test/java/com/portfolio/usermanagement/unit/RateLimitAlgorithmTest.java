@@ -0,0 +1,95 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.entity.RateLimitEntry;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitQuota;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.GcraAlgorithm;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.RateLimitAlgorithm;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.SlidingWindowCounterAlgorithm;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.TokenBucketAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitAlgorithmTest {
+
+    private static final RateLimitQuota QUOTA = new RateLimitQuota(60, 1000);
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void tokenBucket_ShouldRejectAfterMinuteQuotaAndRefillAfterOneMinute() {
+        RateLimitAlgorithm algorithm = new TokenBucketAlgorithm();
+        long[] state = newState(algorithm);
+
+        assertThat(consume(algorithm, state, 60, START)).isEqualTo(60);
+        assertThat(algorithm.tryAcquire(state, QUOTA, 1, START + 59_999)).isEqualTo(-1);
+        assertThat(algorithm.tryAcquire(state, QUOTA, 1, START + 60_000)).isEqualTo(59);
+    }
+
+    @Test
+    void gcra_ShouldAllowBurstThenSpaceRequestsAtHourlyRate() {
+        RateLimitAlgorithm algorithm = new GcraAlgorithm();
+        long[] state = newState(algorithm);
+
+        assertThat(consume(algorithm, state, 100, START)).isEqualTo(60);
+
+        // 1h / 1000 = 3.6s between requests once the burst is used up
+        assertThat(algorithm.tryAcquire(state, QUOTA, 1, START + 3_599)).isEqualTo(-1);
+        assertThat(algorithm.tryAcquire(state, QUOTA, 1, START + 3_600)).isEqualTo(0);
+    }
+
+    @Test
+    void gcra_ShouldRejectCostLargerThanBurst() {
+        RateLimitAlgorithm algorithm = new GcraAlgorithm();
+        long[] state = newState(algorithm);
+
+        assertThat(algorithm.tryAcquire(state, QUOTA, 61, START)).isEqualTo(-1);
+        assertThat(algorithm.tryAcquire(state, QUOTA, 10, START)).isEqualTo(50);
+    }
+
+    @Test
+    void slidingWindow_ShouldWeightPreviousWindow() {
+        RateLimitAlgorithm algorithm = new SlidingWindowCounterAlgorithm();
+        long[] state = newState(algorithm);
+
+        assertThat(consume(algorithm, state, 60, START)).isEqualTo(60);
+
+        // Half-way through the next minute half of the previous window still counts
+        assertThat(consume(algorithm, state, 60, START + 90_000)).isEqualTo(30);
+        assertThat(algorithm.tryAcquire(state, QUOTA, 1, START + 90_000)).isEqualTo(-1);
+    }
+
+    @Test
+    void writeToAndReadFrom_ShouldPreserveRemainingAllowance() {
+        for (RateLimitAlgorithm algorithm : new RateLimitAlgorithm[] {
+                new TokenBucketAlgorithm(), new GcraAlgorithm(), new SlidingWindowCounterAlgorithm()}) {
+            long[] state = newState(algorithm);
+            consume(algorithm, state, 20, START);
+
+            RateLimitEntry entry = new RateLimitEntry();
+            algorithm.writeTo(state, QUOTA, START, entry);
+
+            long[] restored = new long[algorithm.stateSize()];
+            algorithm.readFrom(entry, QUOTA, restored);
+
+            assertThat(consume(algorithm, restored, 100, START))
+                    .as(algorithm.getClass().getSimpleName())
+                    .isEqualTo(40);
+        }
+    }
+
+    private static long[] newState(RateLimitAlgorithm algorithm) {
+        long[] state = new long[algorithm.stateSize()];
+        algorithm.initialize(state, QUOTA, START);
+        return state;
+    }
+
+    private static int consume(RateLimitAlgorithm algorithm, long[] state, int attempts, long nowMs) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (algorithm.tryAcquire(state, QUOTA, 1, nowMs) >= 0) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,102 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.config.RateLimitProperties;
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.repository.NetworkRuleRepository;
+import com.portfolio.usermanagement.security.RateLimitFilter;
+import com.portfolio.usermanagement.security.RateLimitService;
+import com.portfolio.usermanagement.security.jwt.JwtUtils;
+import com.portfolio.usermanagement.security.ratelimit.ClientAddressResolver;
+import com.portfolio.usermanagement.security.ratelimit.HeavyHitterDetector;
+import com.portfolio.usermanagement.security.ratelimit.IpAddress;
+import com.portfolio.usermanagement.security.ratelimit.NetworkAction;
+import com.portfolio.usermanagement.security.ratelimit.NetworkPolicyRegistry;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicy;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicyResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private RateLimitService rateLimitService;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTrustedProxies(List.of("192.0.2.0/24"));
+        properties.setNetworks(List.of(
+                network("10.0.0.0/8", NetworkAction.ALLOW),
+                network("198.51.100.0/24", NetworkAction.DENY)));
+
+        RateLimitPolicyResolver policyResolver = new RateLimitPolicyResolver(properties);
+        rateLimitService = mock(RateLimitService.class);
+        when(rateLimitService.checkRateLimit(any(IpAddress.class), any(RateLimitPolicy.class)))
+                .thenReturn(new RateLimitService.RateLimitResult(false, 0));
+        filter = new RateLimitFilter(
+                rateLimitService,
+                policyResolver,
+                mock(JwtUtils.class),
+                new HeavyHitterDetector(mock(MetricsService.class), false, 1200, 60000, 20, 4, 4096, 0),
+                new NetworkPolicyRegistry(properties, mock(NetworkRuleRepository.class), policyResolver),
+                new ClientAddressResolver(properties));
+    }
+
+    @Test
+    void spoofedForwardedFor_ShouldNotReachAllowRule() throws Exception {
+        MockHttpServletResponse response = send("203.0.113.9", "10.0.0.5");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        verify(rateLimitService).checkRateLimit(eq(IpAddress.parse("203.0.113.9")), any(RateLimitPolicy.class));
+    }
+
+    @Test
+    void spoofedForwardedFor_ShouldNotEscapeDenyRule() throws Exception {
+        assertThat(send("198.51.100.7", "8.8.8.8").getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void trustedProxy_ShouldUseRightMostUntrustedHop() throws Exception {
+        MockHttpServletResponse response = send("192.0.2.1", "10.0.0.5, 203.0.113.9, 192.0.2.2");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        verify(rateLimitService).checkRateLimit(eq(IpAddress.parse("203.0.113.9")), any(RateLimitPolicy.class));
+    }
+
+    @Test
+    void trustedProxy_ShouldForwardAllowlistedClient() throws Exception {
+        MockHttpServletResponse response = send("192.0.2.1", "10.0.0.5");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(rateLimitService, never()).checkRateLimit(any(IpAddress.class), any(RateLimitPolicy.class));
+    }
+
+    private MockHttpServletResponse send(String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private RateLimitProperties.Network network(String cidr, NetworkAction action) {
+        RateLimitProperties.Network network = new RateLimitProperties.Network();
+        network.setCidr(cidr);
+        network.setAction(action);
+        return network;
+    }
+}
@@ -0,0 +1,53 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.entity.RateLimitEntry;
+import com.portfolio.usermanagement.repository.RateLimitRepository;
+import com.portfolio.usermanagement.security.RateLimitService;
+import com.portfolio.usermanagement.security.ratelimit.QuotaLeaseManager;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitKeyType;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitMode;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicy;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitPolicyResolver;
+import com.portfolio.usermanagement.security.ratelimit.RateLimitQuota;
+import com.portfolio.usermanagement.security.ratelimit.algorithm.TokenBucketAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteDirtyBucketsEvictedByTheSizeCap() {
+        RateLimitRepository repository = mock(RateLimitRepository.class);
+        when(repository.findByClientKeyIn(any())).thenReturn(List.of());
+        RateLimitService service = new RateLimitService(repository, new TokenBucketAlgorithm(),
+                mock(RateLimitPolicyResolver.class), mock(QuotaLeaseManager.class), 10, 60);
+        ReflectionTestUtils.setField(service, "mode", RateLimitMode.MEMORY);
+        ReflectionTestUtils.setField(service, "flushBatchSize", 500);
+        RateLimitPolicy policy = new RateLimitPolicy(0, "default", List.of(), RateLimitKeyType.IP,
+                new RateLimitQuota(60, 1000), 1, false);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(service.checkRateLimit("10.0.0." + i, policy).isAllowed()).isTrue();
+        }
+        service.flushDirtyBuckets();
+
+        ArgumentCaptor<Iterable<RateLimitEntry>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository, atLeastOnce()).saveAll(saved.capture());
+        List<String> keys = new ArrayList<>();
+        saved.getAllValues().forEach(batch -> batch.forEach(entry -> keys.add(entry.getClientKey())));
+        assertThat(keys).hasSize(200).contains("default:10.0.0.0", "default:10.0.0.199");
+        assertThat(keys.stream().filter(key -> key.startsWith("default:")).distinct()).hasSize(200);
+    }
+}
@@ -0,0 +1,57 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.security.jwt.RevokedTokenSet;
+import com.portfolio.usermanagement.security.jwt.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenSetTest {
+
+    @Test
+    void expire_ShouldDropOnlyExpiredJtis() {
+        long now = 1_700_000_000_000L;
+        RevokedTokenSet set = new RevokedTokenSet(1000, now);
+        set.add("short", now + 5_000);
+        set.add("long", now + 3_600_000);
+        set.add("already-expired", now - 1);
+
+        assertThat(set.contains("already-expired")).isFalse();
+        assertThat(set.expire(now + 4_000)).isZero();
+        assertThat(set.contains("short")).isTrue();
+
+        assertThat(set.expire(now + 5_000)).isEqualTo(1);
+        assertThat(set.contains("short")).isFalse();
+        assertThat(set.contains("long")).isTrue();
+
+        assertThat(set.expire(now + 3_600_000)).isEqualTo(1);
+        assertThat(set.size()).isZero();
+    }
+
+    @Test
+    void advance_ShouldExpireEachItemWithinOneTickAcrossAllLevels() {
+        long now = 0;
+        TimingWheel<Long> wheel = new TimingWheel<>(10, now);
+        long[] deadlines = {15, 640, 655, 40_960, 2_621_440, 200_000_000};
+        for (long deadline : deadlines) {
+            assertThat(wheel.schedule(deadline, deadline)).isTrue();
+        }
+
+        List<long[]> expired = new ArrayList<>();
+        for (long clock = 0; clock <= 200_000_000; clock += 99_991) {
+            long at = clock;
+            wheel.advance(at, deadline -> expired.add(new long[]{deadline, at}));
+        }
+        wheel.advance(200_000_010L, deadline -> expired.add(new long[]{deadline, 200_000_010L}));
+
+        assertThat(expired).hasSize(deadlines.length);
+        assertThat(wheel.size()).isZero();
+        for (long[] entry : expired) {
+            // Never early; late by at most one tick plus the step between advances
+            assertThat(entry[1]).isBetween(entry[0], entry[0] + 10 + 99_991);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.security.SecureIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecureIdGeneratorTest {
+
+    @Test
+    void generate_ShouldProduceDistinctCompactUrlSafeIds() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String jti = SecureIdGenerator.jti();
+            assertThat(jti).hasSize(22).matches("[A-Za-z0-9_-]+");
+            ids.add(jti);
+        }
+
+        assertThat(ids).hasSize(10_000);
+        assertThat(SecureIdGenerator.refreshToken()).hasSize(43);
+    }
+
+    @Test
+    void uuid_ShouldBeRandomVersion4() {
+        UUID uuid = SecureIdGenerator.uuid();
+
+        assertThat(uuid.version()).isEqualTo(4);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,115 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.entity.JwtSigningKey;
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.repository.JwtSigningKeyRepository;
+import com.portfolio.usermanagement.security.jwt.JwtUtils;
+import com.portfolio.usermanagement.security.jwt.SigningAlgorithm;
+import com.portfolio.usermanagement.security.jwt.SigningKeyRing;
+import com.portfolio.usermanagement.security.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SigningKeyRingTest {
+
+    private static final String SECRET = "unit-test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789";
+
+    private final List<JwtSigningKey> stored = new ArrayList<>();
+    private SigningKeyRing keyRing;
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        JwtSigningKeyRepository repository = mock(JwtSigningKeyRepository.class);
+        when(repository.save(any(JwtSigningKey.class))).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findByAlgorithmAndExpiresAtAfterOrderByActivatesAtDescKidAsc(eq(SigningAlgorithm.EDDSA), any(Instant.class)))
+                .thenAnswer(invocation -> stored.stream()
+                        .sorted(Comparator.comparing(JwtSigningKey::getActivatesAt).reversed())
+                        .toList());
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(new MetricsService(new SimpleMeterRegistry()), true, 100);
+        keyRing = new SigningKeyRing(repository, cache, "EdDSA", 86_400_000L, 900_000L, 3_600_000L, SECRET);
+        keyRing.initialize();
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtils, "signingKeyRing", keyRing);
+        jwtUtils.validateSecret();
+    }
+
+    @Test
+    void generateJwtToken_ShouldSignWithActiveKeyAndPublishIt() {
+        User user = (User) User.withUsername("alice").password("n/a").roles("USER").build();
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        String kid = keyRing.activeKey().kid();
+        assertThat(jwtUtils.parseToken(token).subject()).isEqualTo("alice");
+        assertThat(stored).singleElement().satisfies(key -> assertThat(key.getKid()).isEqualTo(kid));
+        assertThat(stored.get(0).getPrivateKey()).isNotEqualTo(
+                Base64.getEncoder().encodeToString(keyRing.activeKey().privateKey().getEncoded()));
+        assertThat(keyRing.jwksJson()).contains("\"kid\":\"" + kid + "\"").contains("\"crv\":\"Ed25519\"");
+    }
+
+    @Test
+    void parseToken_ShouldRejectUnknownKid() {
+        String forged = Jwts.builder()
+                .header().keyId("unknown").and()
+                .subject("mallory")
+                .signWith(Jwks.CRV.Ed25519.keyPair().build().getPrivate())
+                .compact();
+
+        assertThatThrownBy(() -> jwtUtils.parseToken(forged)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void parseToken_ShouldLimitSharedSecretTokensToTheTransition() {
+        Instant now = Instant.now();
+        String issuedBeforeSwitch = sharedSecretToken(now.plusSeconds(1800));
+        String mintedAfterSwitch = sharedSecretToken(now.plusSeconds(7200));
+
+        assertThat(jwtUtils.parseToken(issuedBeforeSwitch).subject()).isEqualTo("alice");
+        assertThatThrownBy(() -> jwtUtils.parseToken(mintedAfterSwitch)).isInstanceOf(SignatureException.class);
+
+        // Once a token lifetime has passed since activation, no shared-secret token is accepted
+        stored.get(0).setActivatesAt(now.minusSeconds(7200));
+        keyRing.refresh();
+        String late = sharedSecretToken(now.plusSeconds(600));
+        assertThatThrownBy(() -> jwtUtils.parseToken(late)).isInstanceOf(SignatureException.class);
+    }
+
+    private String sharedSecretToken(Instant expiration) {
+        return Jwts.builder()
+                .subject("alice")
+                .issuedAt(new Date())
+                .expiration(Date.from(expiration))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
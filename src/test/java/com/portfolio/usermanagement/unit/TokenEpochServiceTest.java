@@ -0,0 +1,141 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.entity.RevokedSubject;
+import com.portfolio.usermanagement.repository.RevokedSubjectRepository;
+import com.portfolio.usermanagement.repository.UserRepository;
+import com.portfolio.usermanagement.security.jwt.JwtUtils;
+import com.portfolio.usermanagement.security.jwt.ParsedToken;
+import com.portfolio.usermanagement.security.jwt.TokenEpochService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenEpochServiceTest {
+
+    private static final String SECRET = "unit-test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789";
+
+    private UserRepository userRepository;
+    private RevokedSubjectRepository revokedSubjectRepository;
+    private TokenEpochService tokenEpochService;
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenEpochsSince(any(Instant.class))).thenReturn(List.of());
+        revokedSubjectRepository = mock(RevokedSubjectRepository.class);
+        when(revokedSubjectRepository.findTokenEpochsSince(any(Instant.class))).thenReturn(List.of());
+        tokenEpochService = new TokenEpochService(userRepository, revokedSubjectRepository, 3_600_000L, 10_000L);
+        tokenEpochService.initialize();
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000L);
+        jwtUtils.validateSecret();
+    }
+
+    @Test
+    void revokeAllTokens_ShouldRejectTokensIssuedUpToTheEpochOnly() {
+        ParsedToken before = token("alice", Instant.now().minusSeconds(60));
+        ParsedToken otherUser = token("bob", Instant.now().minusSeconds(60));
+
+        tokenEpochService.revokeAllTokens("alice");
+
+        verify(userRepository).updateTokensValidAfter(eq("alice"), any(Instant.class));
+        assertThat(tokenEpochService.isRevoked(before)).isTrue();
+        assertThat(tokenEpochService.isRevoked(otherUser)).isFalse();
+        assertThat(tokenEpochService.isRevoked(token("alice", Instant.now().plusSeconds(2)))).isFalse();
+    }
+
+    @Test
+    void revokeAllTokens_ShouldAcceptTokensIssuedLaterInTheSameSecond() throws InterruptedException {
+        while (System.currentTimeMillis() % 1000 > 800) {
+            Thread.sleep(10);
+        }
+        ParsedToken before = issue("dave");
+        Thread.sleep(5);
+        tokenEpochService.revokeAllTokens("dave");
+        Thread.sleep(5);
+        ParsedToken after = issue("dave");
+
+        assertThat(after.issuedAt()).isEqualTo(before.issuedAt());
+        assertThat(tokenEpochService.isRevoked(before)).isTrue();
+        assertThat(tokenEpochService.isRevoked(after)).isFalse();
+    }
+
+    @Test
+    void sync_ShouldApplyEpochsSetOnOtherNodes() {
+        Instant epoch = Instant.now().minusSeconds(30);
+        UserRepository.TokenEpoch remote = mock(UserRepository.TokenEpoch.class);
+        when(remote.getUsername()).thenReturn("alice");
+        when(remote.getTokensValidAfter()).thenReturn(epoch);
+        when(userRepository.findTokenEpochsSince(any(Instant.class))).thenReturn(List.of(remote));
+
+        tokenEpochService.sync();
+
+        assertThat(tokenEpochService.isRevoked(token("alice", epoch.minusSeconds(5)))).isTrue();
+        assertThat(tokenEpochService.isRevoked(token("alice", epoch.plusSeconds(5)))).isFalse();
+    }
+
+    @Test
+    void revokeDeletedUser_ShouldRejectStatelessTokensOnEveryNode() {
+        ParsedToken adminToken = token("carol", Instant.now().minusSeconds(60), List.of("ROLE_ADMIN"));
+        assertThat(adminToken.hasAuthorities()).isTrue();
+
+        tokenEpochService.revokeDeletedUser("carol");
+
+        ArgumentCaptor<RevokedSubject> saved = ArgumentCaptor.forClass(RevokedSubject.class);
+        verify(revokedSubjectRepository).save(saved.capture());
+        assertThat(saved.getValue().getExpiresAt()).isAfter(Instant.now().plusSeconds(3500));
+        assertThat(tokenEpochService.isRevoked(adminToken)).isTrue();
+
+        // Another node: the users row is gone, the revocation is found in revoked_subjects
+        UserRepository.TokenEpoch remote = mock(UserRepository.TokenEpoch.class);
+        when(remote.getUsername()).thenReturn("carol");
+        when(remote.getTokensValidAfter()).thenReturn(saved.getValue().getTokensValidAfter());
+        when(revokedSubjectRepository.findTokenEpochsSince(any(Instant.class))).thenReturn(List.of(remote));
+        TokenEpochService otherNode = new TokenEpochService(userRepository, revokedSubjectRepository, 3_600_000L, 10_000L);
+        otherNode.initialize();
+
+        assertThat(otherNode.isRevoked(adminToken)).isTrue();
+    }
+
+    private ParsedToken issue(String username) {
+        UserDetails user = User.withUsername(username).password("unused").roles("USER").build();
+        return jwtUtils.parseToken(jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())));
+    }
+
+    private ParsedToken token(String username, Instant issuedAt) {
+        return token(username, issuedAt, null);
+    }
+
+    private ParsedToken token(String username, Instant issuedAt, List<String> roles) {
+        String jwt = Jwts.builder()
+                .subject(username)
+                .claim("roles", roles)
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(issuedAt.plusSeconds(3600)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        return jwtUtils.parseToken(jwt);
+    }
+}
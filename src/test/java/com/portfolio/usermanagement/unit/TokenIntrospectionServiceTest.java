@@ -0,0 +1,82 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.dto.response.TokenIntrospectionResponse;
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.security.jwt.JwtUtils;
+import com.portfolio.usermanagement.security.jwt.TokenBlacklistService;
+import com.portfolio.usermanagement.security.jwt.TokenEpochService;
+import com.portfolio.usermanagement.security.jwt.TokenIntrospectionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIntrospectionServiceTest {
+
+    @Mock
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private TokenIntrospectionService introspectionService;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "unit-test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000L);
+        jwtUtils.validateSecret();
+
+        User user = (User) User.withUsername("alice").password("n/a").roles("USER").build();
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(user);
+
+        introspectionService = new TokenIntrospectionService(jwtUtils, tokenBlacklistService, tokenEpochService,
+                userDetailsService, new MetricsService(new SimpleMeterRegistry()), 100, 60_000, 5_000);
+    }
+
+    @Test
+    void introspect_ShouldResolveBatchInOrderAndCacheActiveResults() {
+        List<TokenIntrospectionResponse> results = introspectionService.introspect(List.of(token, "not-a-jwt", token));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).isActive()).isTrue();
+        assertThat(results.get(0).getSub()).isEqualTo("alice");
+        assertThat(results.get(0).getRoles()).containsExactly("ROLE_USER");
+        assertThat(results.get(0).getExp()).isNotNull();
+        assertThat(results.get(1).isActive()).isFalse();
+        assertThat(results.get(1).getSub()).isNull();
+        assertThat(results.get(2)).isSameAs(results.get(0));
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void introspect_ShouldRecheckRevocationOnCacheHit() {
+        assertThat(introspectionService.introspect(token).isActive()).isTrue();
+
+        when(tokenBlacklistService.isBlacklisted(any())).thenReturn(true);
+
+        assertThat(introspectionService.introspect(token).isActive()).isFalse();
+    }
+}
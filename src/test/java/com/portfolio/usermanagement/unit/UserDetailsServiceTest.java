@@ -0,0 +1,70 @@
+package com.portfolio.usermanagement.unit;
+
+import com.portfolio.usermanagement.entity.Role;
+import com.portfolio.usermanagement.entity.User;
+import com.portfolio.usermanagement.monitoring.MetricsService;
+import com.portfolio.usermanagement.repository.UserRepository;
+import com.portfolio.usermanagement.security.UserDetailsChangedEvent;
+import com.portfolio.usermanagement.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new UserDetailsServiceImpl(userRepository,
+                new MetricsService(new SimpleMeterRegistry()), true, 100, 60_000);
+
+        User user = User.builder()
+                .username("testuser")
+                .email("test@example.com")
+                .password("hashedPassword")
+                .firstName("Test")
+                .lastName("User")
+                .roles(Set.of(new Role(Role.RoleName.ROLE_USER)))
+                .build();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void loadUserByUsername_ShouldServeCopiesFromCache() {
+        UserDetails first = userDetailsService.loadUserByUsername("testuser");
+        ((CredentialsContainer) first).eraseCredentials();
+
+        UserDetails second = userDetailsService.loadUserByUsername("testuser");
+
+        assertThat(second.getPassword()).isEqualTo("hashedPassword");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    void onUserDetailsChanged_ShouldEvictUser() {
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.onUserDetailsChanged(new UserDetailsChangedEvent("testuser"));
+        userDetailsService.loadUserByUsername("testuser");
+
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+}
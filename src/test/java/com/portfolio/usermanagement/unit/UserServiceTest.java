@@ -5,6 +5,7 @@ import com.portfolio.usermanagement.entity.Role;
 import com.portfolio.usermanagement.entity.User;
 import com.portfolio.usermanagement.exception.ResourceNotFoundException;
 import com.portfolio.usermanagement.repository.UserRepository;
+import com.portfolio.usermanagement.security.jwt.TokenEpochService;
 import com.portfolio.usermanagement.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.HashSet;
 import java.util.Optional;
@@ -29,6 +31,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -130,5 +138,6 @@ class UserServiceTest {
         // Assert
         verify(userRepository, times(1)).findById(testUserId);
         verify(userRepository, times(1)).delete(testUser);
+        verify(tokenEpochService, times(1)).revokeDeletedUser(testUser.getUsername());
     }
 }